@@ -0,0 +1,82 @@
+package io.linguarobot.aws.cdk.maven.runtime;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Temporarily overrides the environment variables of the JVM. The variables are changed in the maps backing
+ * {@link System#getenv()}, so they are also inherited by the child processes whose environment is built with
+ * {@link ProcessBuilder#environment()}, which is the case for the jsii runtime executing the CDK app.
+ *
+ * On Java 16 and later the JVM must be started with {@code --add-opens java.base/java.util=ALL-UNNAMED} (and
+ * {@code java.base/java.lang} on Windows).
+ */
+class EnvironmentOverride {
+
+    private final List<Map<String, String>> environments;
+    private final Map<String, String> previousValues;
+
+    private EnvironmentOverride(List<Map<String, String>> environments, Map<String, String> previousValues) {
+        this.environments = environments;
+        this.previousValues = previousValues;
+    }
+
+    /**
+     * Sets the given environment variables. The variables with {@code null} values are removed.
+     *
+     * @throws UnsupportedOperationException if the environment variables cannot be modified in this JVM
+     */
+    public static EnvironmentOverride apply(Map<String, String> variables) {
+        List<Map<String, String>> environments = getModifiableEnvironments();
+        Map<String, String> previousValues = new HashMap<>();
+        variables.keySet().forEach(name -> previousValues.put(name, System.getenv(name)));
+        EnvironmentOverride environmentOverride = new EnvironmentOverride(environments, previousValues);
+        variables.forEach(environmentOverride::set);
+        return environmentOverride;
+    }
+
+    /**
+     * Restores the values the variables had before they were overridden.
+     */
+    public void restore() {
+        previousValues.forEach(this::set);
+    }
+
+    private void set(String name, String value) {
+        environments.forEach(environment -> {
+            if (value != null) {
+                environment.put(name, value);
+            } else {
+                environment.remove(name);
+            }
+        });
+    }
+
+    private static List<Map<String, String>> getModifiableEnvironments() {
+        List<Map<String, String>> environments = new ArrayList<>();
+        try {
+            environments.add(getField(System.getenv().getClass(), "m", System.getenv()));
+            try {
+                Class<?> processEnvironment = Class.forName("java.lang.ProcessEnvironment");
+                environments.add(getField(processEnvironment, "theCaseInsensitiveEnvironment", null));
+            } catch (NoSuchFieldException e) {
+                // the case insensitive environment exists on Windows only
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new UnsupportedOperationException("The environment variables of the JVM cannot be modified", e);
+        }
+
+        return environments;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> getField(Class<?> type, String name, Object instance) throws ReflectiveOperationException {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return (Map<String, String>) field.get(instance);
+    }
+
+}
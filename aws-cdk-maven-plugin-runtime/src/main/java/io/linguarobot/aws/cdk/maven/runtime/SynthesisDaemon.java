@@ -0,0 +1,311 @@
+package io.linguarobot.aws.cdk.maven.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A long-lived process synthesizing cloud assemblies on request, so that the JVM doesn't have to be started (and
+ * warmed up) for every synthesis.
+ *
+ * The daemon listens on a loopback port and publishes the port together with a random token in the daemon file. The
+ * requests without the valid token are rejected. The requests are processed one at a time: the application classes
+ * are loaded with a class loader that is reused until the classpath changes, and the jsii runtime is kept running as
+ * long as the application is executed with the same environment. A client that doesn't send its request in time is
+ * disconnected, so that it cannot hold up the other clients. The daemon exits once it hasn't received a valid request
+ * for the given time.
+ */
+public class SynthesisDaemon {
+
+    public static final String PORT_PROPERTY = "port";
+    public static final String TOKEN_PROPERTY = "token";
+
+    private static final String JSII_ENGINE_CLASS_NAME = "software.amazon.jsii.JsiiEngine";
+    private static final int REQUEST_TIMEOUT = 30_000;
+
+    private final String token;
+    private final int requestTimeout;
+
+    private URLClassLoader classLoader;
+    private List<String> classpath;
+    private String classpathState;
+    private Map<String, String> environment;
+
+    /**
+     * @param token the token the requests must be authorized with
+     * @param requestTimeout the time (in milliseconds) a client has to send its request after connecting
+     */
+    SynthesisDaemon(String token, int requestTimeout) {
+        this.token = token;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Expected arguments: <daemon file> <idle timeout in seconds>");
+        }
+
+        Path daemonFile = Paths.get(args[0]);
+        int idleTimeout = Integer.parseInt(args[1]);
+        String token = generateToken();
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            writeDaemonFile(daemonFile, serverSocket.getLocalPort(), token);
+            SynthesisDaemon daemon = new SynthesisDaemon(token, REQUEST_TIMEOUT);
+            try {
+                daemon.serve(serverSocket, TimeUnit.SECONDS.toMillis(idleTimeout));
+            } finally {
+                daemon.closeClassLoader();
+                deleteDaemonFile(daemonFile, token);
+            }
+        }
+
+        // the applications might have left non-daemon threads running
+        System.exit(0);
+    }
+
+    /**
+     * Serves the requests until no valid request has been received for the given time (in milliseconds).
+     */
+    void serve(ServerSocket serverSocket, long idleTimeout) throws IOException {
+        long idleDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        while (true) {
+            long remainingTime = TimeUnit.NANOSECONDS.toMillis(idleDeadline - System.nanoTime());
+            if (remainingTime <= 0) {
+                return;
+            }
+
+            Socket socket;
+            try {
+                serverSocket.setSoTimeout((int) Math.min(remainingTime, Integer.MAX_VALUE));
+                socket = serverSocket.accept();
+            } catch (SocketTimeoutException e) {
+                return;
+            }
+
+            try (Socket s = socket;
+                 DataInputStream input = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+                s.setSoTimeout(requestTimeout);
+                SynthesisRequest request = SynthesisRequest.readFrom(input);
+                if (!token.equals(request.getToken())) {
+                    continue;
+                }
+                synthesize(request).writeTo(output);
+                idleDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+            } catch (IOException e) {
+                e.printStackTrace(System.err);
+            }
+        }
+    }
+
+    private SynthesisResponse synthesize(SynthesisRequest request) throws UnsupportedEncodingException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(output, true, "UTF-8");
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+        System.setOut(printStream);
+        System.setErr(printStream);
+        boolean successful;
+        try {
+            Map<String, String> environmentOverrides = getEnvironmentOverrides(request.getEnvironment());
+            if (!environmentOverrides.equals(environment)) {
+                // the running jsii runtime has inherited the previous environment
+                if (classLoader != null && !resetJsiiRuntime(classLoader)) {
+                    closeClassLoader();
+                }
+                environment = environmentOverrides;
+            }
+
+            currentThread.setContextClassLoader(getClassLoader(request.getClasspath()));
+            Synthesizer.run(request.getApp(), request.getArguments().toArray(new String[0]), environmentOverrides);
+            successful = true;
+        } catch (Throwable e) {
+            e.printStackTrace(printStream);
+            successful = false;
+        } finally {
+            currentThread.setContextClassLoader(contextClassLoader);
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+
+        return new SynthesisResponse(successful, new String(output.toByteArray(), "UTF-8"));
+    }
+
+    /**
+     * Returns the changes that have to be made to the environment of the daemon in order to get the given one.
+     */
+    private Map<String, String> getEnvironmentOverrides(Map<String, String> environment) {
+        Map<String, String> environmentOverrides = new HashMap<>();
+        environment.forEach((name, value) -> {
+            if (!value.equals(System.getenv(name))) {
+                environmentOverrides.put(name, value);
+            }
+        });
+        System.getenv().keySet().stream()
+                .filter(name -> environment.keySet().stream().noneMatch(name::equalsIgnoreCase))
+                .forEach(name -> environmentOverrides.put(name, null));
+        return environmentOverrides;
+    }
+
+    ClassLoader getClassLoader(List<String> classpath) throws IOException {
+        String classpathState = getClasspathState(classpath);
+        if (classLoader == null || !classpath.equals(this.classpath) || !classpathState.equals(this.classpathState)) {
+            closeClassLoader();
+            List<URL> urls = new ArrayList<>();
+            for (String element : classpath) {
+                urls.add(toUrl(element));
+            }
+            classLoader = new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getSystemClassLoader().getParent());
+            this.classpath = classpath;
+            this.classpathState = classpathState;
+        }
+
+        return classLoader;
+    }
+
+    /**
+     * Returns a string describing the state of the classpath elements: it changes whenever a file is added, removed
+     * or modified.
+     */
+    private String getClasspathState(List<String> classpath) throws IOException {
+        StringBuilder state = new StringBuilder();
+        for (String element : classpath) {
+            Path path = Paths.get(element);
+            if (!Files.exists(path)) {
+                state.append('-').append(File.pathSeparatorChar);
+                continue;
+            }
+
+            try (Stream<Path> files = Files.walk(path)) {
+                List<Path> regularFiles = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                for (Path file : regularFiles) {
+                    state.append(file).append(':')
+                            .append(Files.size(file)).append(':')
+                            .append(Files.getLastModifiedTime(file).toMillis()).append(File.pathSeparatorChar);
+                }
+            }
+        }
+
+        return state.toString();
+    }
+
+    /**
+     * Terminates the jsii runtime loaded by the class loader (if any), so that a new one is started inheriting the
+     * current environment when the application is executed again.
+     *
+     * @return {@code false} if the jsii runtime cannot be terminated
+     */
+    private static boolean resetJsiiRuntime(ClassLoader classLoader) {
+        try {
+            Class<?> jsiiEngine = Class.forName(JSII_ENGINE_CLASS_NAME, false, classLoader);
+            jsiiEngine.getMethod("reset").invoke(null);
+            return true;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+
+    void closeClassLoader() {
+        if (classLoader == null) {
+            return;
+        }
+
+        URLClassLoader classLoader = this.classLoader;
+        this.classLoader = null;
+        this.classpath = null;
+        this.classpathState = null;
+        // if the runtime cannot be terminated now, it's terminated when the daemon exits
+        resetJsiiRuntime(classLoader);
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static URL toUrl(String path) throws MalformedURLException {
+        return new File(path).toURI().toURL();
+    }
+
+    private static String generateToken() {
+        byte[] token = new byte[32];
+        new SecureRandom().nextBytes(token);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Writes the port and the token to the daemon file. The file is written atomically and, where supported, is
+     * readable by the owner only.
+     */
+    private static void writeDaemonFile(Path daemonFile, int port, String token) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(PORT_PROPERTY, Integer.toString(port));
+        properties.setProperty(TOKEN_PROPERTY, token);
+
+        Path directory = daemonFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, daemonFile.getFileName().toString(), ".tmp");
+        try {
+            try {
+                Files.setPosixFilePermissions(temporaryFile, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                // the file system doesn't support POSIX permissions
+            }
+            try (OutputStream output = Files.newOutputStream(temporaryFile)) {
+                properties.store(output, null);
+            }
+            Files.move(temporaryFile, daemonFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Deletes the daemon file unless it has been replaced by another daemon.
+     */
+    private static void deleteDaemonFile(Path daemonFile, String token) {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(daemonFile)) {
+            properties.load(input);
+            if (Objects.equals(properties.getProperty(TOKEN_PROPERTY), token)) {
+                Files.deleteIfExists(daemonFile);
+            }
+        } catch (IOException e) {
+            // the daemon file has been already deleted
+        }
+    }
+
+}
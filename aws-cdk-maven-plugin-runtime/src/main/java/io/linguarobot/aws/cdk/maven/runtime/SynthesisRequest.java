@@ -0,0 +1,129 @@
+package io.linguarobot.aws.cdk.maven.runtime;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request sent to {@link SynthesisDaemon} in order to synthesize a cloud assembly.
+ */
+public class SynthesisRequest {
+
+    private static final int MAX_STRING_LENGTH = 64 * 1024 * 1024;
+    private static final int MAX_ELEMENTS = 64 * 1024;
+
+    private final String token;
+    private final List<String> classpath;
+    private final String app;
+    private final List<String> arguments;
+    private final Map<String, String> environment;
+
+    /**
+     * @param token the token authorizing the request
+     * @param classpath the classpath of the application
+     * @param app the name of the application class
+     * @param arguments the arguments of the application
+     * @param environment the environment variables the application is executed with
+     */
+    public SynthesisRequest(String token,
+                            List<String> classpath,
+                            String app,
+                            List<String> arguments,
+                            Map<String, String> environment) {
+        this.token = token;
+        this.classpath = Collections.unmodifiableList(new ArrayList<>(classpath));
+        this.app = app;
+        this.arguments = Collections.unmodifiableList(new ArrayList<>(arguments));
+        this.environment = Collections.unmodifiableMap(new LinkedHashMap<>(environment));
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public List<String> getClasspath() {
+        return classpath;
+    }
+
+    public String getApp() {
+        return app;
+    }
+
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    public void writeTo(DataOutputStream output) throws IOException {
+        writeString(output, token);
+        writeList(output, classpath);
+        writeString(output, app);
+        writeList(output, arguments);
+        output.writeInt(environment.size());
+        for (Map.Entry<String, String> variable : environment.entrySet()) {
+            writeString(output, variable.getKey());
+            writeString(output, variable.getValue());
+        }
+        output.flush();
+    }
+
+    public static SynthesisRequest readFrom(DataInputStream input) throws IOException {
+        String token = readString(input);
+        List<String> classpath = readList(input);
+        String app = readString(input);
+        List<String> arguments = readList(input);
+        int variables = readSize(input, MAX_ELEMENTS);
+        Map<String, String> environment = new LinkedHashMap<>();
+        for (int i = 0; i < variables; i++) {
+            environment.put(readString(input), readString(input));
+        }
+
+        return new SynthesisRequest(token, classpath, app, arguments, environment);
+    }
+
+    static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[readSize(input, MAX_STRING_LENGTH)];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeList(DataOutputStream output, List<String> values) throws IOException {
+        output.writeInt(values.size());
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    private static List<String> readList(DataInputStream input) throws IOException {
+        int size = readSize(input, MAX_ELEMENTS);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(input));
+        }
+        return values;
+    }
+
+    private static int readSize(DataInputStream input, int maxSize) throws IOException {
+        int size = input.readInt();
+        if (size < 0 || size > maxSize) {
+            throw new IOException("Invalid synthesis request");
+        }
+        return size;
+    }
+
+}
@@ -0,0 +1,44 @@
+package io.linguarobot.aws.cdk.maven.runtime;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The result of a synthesis performed by {@link SynthesisDaemon}.
+ */
+public class SynthesisResponse {
+
+    private final boolean successful;
+    private final String output;
+
+    /**
+     * @param successful whether the cloud assembly has been successfully synthesized
+     * @param output the output of the application (including the error if the synthesis has failed)
+     */
+    public SynthesisResponse(boolean successful, String output) {
+        this.successful = successful;
+        this.output = output;
+    }
+
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public void writeTo(DataOutputStream output) throws IOException {
+        output.writeBoolean(successful);
+        SynthesisRequest.writeString(output, this.output);
+        output.flush();
+    }
+
+    public static SynthesisResponse readFrom(DataInputStream input) throws IOException {
+        boolean successful = input.readBoolean();
+        String output = SynthesisRequest.readString(input);
+        return new SynthesisResponse(successful, output);
+    }
+
+}
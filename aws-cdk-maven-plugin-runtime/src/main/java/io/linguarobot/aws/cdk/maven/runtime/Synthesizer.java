@@ -4,6 +4,8 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,6 +29,35 @@ public class Synthesizer {
         }
     }
 
+    /**
+     * Synthesizes the cloud assembly within the current JVM. The given environment variables (for example,
+     * {@code CDK_OUTDIR} and {@code CDK_CONTEXT_JSON}) are visible to the app and the jsii runtime it starts for the
+     * duration of the synthesis only. The app classes are loaded with the context class loader of the current thread.
+     *
+     * @throws UnsupportedOperationException if the environment variables of the JVM cannot be overridden
+     */
+    public static void run(String appClassName, String[] args, Map<String, String> environment) throws Throwable {
+        EnvironmentOverride environmentOverride = EnvironmentOverride.apply(environment);
+        try {
+            run(appClassName, args);
+        } finally {
+            environmentOverride.restore();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the environment variables can be overridden for the synthesis performed within the
+     * current JVM, see {@link #run(String, String[], Map)}.
+     */
+    public static boolean canRunInProcess() {
+        try {
+            EnvironmentOverride.apply(Collections.emptyMap());
+            return true;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
     private static void run(String appClassName, String[] args) throws Throwable {
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         Class<?> appClass = classLoader.loadClass(appClassName);
@@ -0,0 +1,109 @@
+package io.linguarobot.aws.cdk.maven.runtime;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class SynthesisDaemonTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("synthesis-daemon-test");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRequestWithInvalidTokenIsRejected() throws Exception {
+        SynthesisDaemon daemon = new SynthesisDaemon("token", 10_000);
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<Void> serving = serve(daemon, serverSocket, 1000);
+
+            SynthesisRequest request = new SynthesisRequest("invalid", Collections.emptyList(), "com.example.App",
+                    Collections.emptyList(), Collections.emptyMap());
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                 DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                socket.setSoTimeout(10_000);
+                request.writeTo(output);
+                SynthesisResponse.readFrom(input);
+                Assert.fail("The request should have been rejected");
+            } catch (EOFException e) {
+                // the connection has been closed without a response
+            }
+
+            serving.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testSilentClientDoesNotPreventIdleTimeout() throws Exception {
+        SynthesisDaemon daemon = new SynthesisDaemon("token", 100);
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+             Socket ignored = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+            CompletableFuture<Void> serving = serve(daemon, serverSocket, 1000);
+
+            serving.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testClassLoaderIsReplacedWhenClasspathChanges() throws IOException {
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        Path resources = Files.createDirectories(directory.resolve("resources"));
+        Files.write(classes.resolve("App.class"), new byte[]{1, 2, 3});
+        SynthesisDaemon daemon = new SynthesisDaemon("token", 10_000);
+        try {
+            ClassLoader classLoader = daemon.getClassLoader(Collections.singletonList(classes.toString()));
+            Assert.assertSame(daemon.getClassLoader(Collections.singletonList(classes.toString())), classLoader);
+
+            Files.write(classes.resolve("Stack.class"), "stack".getBytes(StandardCharsets.UTF_8));
+            ClassLoader modifiedClassLoader = daemon.getClassLoader(Collections.singletonList(classes.toString()));
+            Assert.assertNotSame(modifiedClassLoader, classLoader);
+
+            ClassLoader extendedClassLoader = daemon.getClassLoader(Arrays.asList(classes.toString(), resources.toString()));
+            Assert.assertNotSame(extendedClassLoader, modifiedClassLoader);
+        } finally {
+            daemon.closeClassLoader();
+        }
+    }
+
+    private static CompletableFuture<Void> serve(SynthesisDaemon daemon, ServerSocket serverSocket, long idleTimeout) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                daemon.serve(serverSocket, idleTimeout);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+}
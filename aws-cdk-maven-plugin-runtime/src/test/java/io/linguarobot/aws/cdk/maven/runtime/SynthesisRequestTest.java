@@ -0,0 +1,54 @@
+package io.linguarobot.aws.cdk.maven.runtime;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SynthesisRequestTest {
+
+    @Test
+    public void testRequestRoundTrip() throws IOException {
+        Map<String, String> environment = new LinkedHashMap<>();
+        environment.put("CDK_OUTDIR", "/tmp/cdk.out");
+        environment.put("CDK_CONTEXT_JSON", "{\"key\":\"välue\"}");
+        SynthesisRequest request = new SynthesisRequest("token", Arrays.asList("/tmp/classes", "/tmp/app.jar"),
+                "com.example.App", Arrays.asList("first", ""), environment);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        request.writeTo(new DataOutputStream(bytes));
+        SynthesisRequest readRequest = SynthesisRequest.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assert.assertEquals(readRequest.getToken(), "token");
+        Assert.assertEquals(readRequest.getClasspath(), Arrays.asList("/tmp/classes", "/tmp/app.jar"));
+        Assert.assertEquals(readRequest.getApp(), "com.example.App");
+        Assert.assertEquals(readRequest.getArguments(), Arrays.asList("first", ""));
+        Assert.assertEquals(readRequest.getEnvironment(), environment);
+    }
+
+    @Test
+    public void testResponseRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new SynthesisResponse(false, "Synthesis has failed: ✗\n").writeTo(new DataOutputStream(bytes));
+        SynthesisResponse response = SynthesisResponse.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assert.assertFalse(response.isSuccessful());
+        Assert.assertEquals(response.getOutput(), "Synthesis has failed: ✗\n");
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testInvalidSizeIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeInt(-1);
+
+        SynthesisRequest.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+}
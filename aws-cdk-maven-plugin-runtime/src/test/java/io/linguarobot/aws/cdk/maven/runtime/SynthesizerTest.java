@@ -0,0 +1,70 @@
+package io.linguarobot.aws.cdk.maven.runtime;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SynthesizerTest {
+
+    private static final String ADDED_VARIABLE_NAME = "CDK_SYNTHESIZER_TEST";
+
+    @BeforeMethod
+    public void checkEnvironmentOverride() {
+        if (!Synthesizer.canRunInProcess()) {
+            throw new SkipException("The environment variables of the JVM cannot be overridden");
+        }
+    }
+
+    @Test
+    public void testEnvironmentIsOverriddenDuringSynthesis() throws Throwable {
+        Map<String, String> environment = new HashMap<>(System.getenv());
+        String removedVariableName = environment.keySet().iterator().next();
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put(ADDED_VARIABLE_NAME, "value");
+        overrides.put(removedVariableName, null);
+
+        Synthesizer.run(EnvironmentRecordingApp.class.getName(), new String[0], overrides);
+
+        Assert.assertEquals(EnvironmentRecordingApp.environment.get(ADDED_VARIABLE_NAME), "value");
+        Assert.assertFalse(EnvironmentRecordingApp.environment.containsKey(removedVariableName));
+        Assert.assertEquals(System.getenv(), environment);
+    }
+
+    @Test
+    public void testEnvironmentIsRestoredWhenAppFails() throws Throwable {
+        Map<String, String> environment = new HashMap<>(System.getenv());
+
+        try {
+            Synthesizer.run(FailingApp.class.getName(), new String[0], Collections.singletonMap(ADDED_VARIABLE_NAME, "value"));
+            Assert.fail("The synthesis must fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "Unable to synthesize the app");
+        }
+
+        Assert.assertEquals(System.getenv(), environment);
+    }
+
+    public static class EnvironmentRecordingApp {
+
+        private static volatile Map<String, String> environment;
+
+        public static void main(String[] args) {
+            environment = new HashMap<>(System.getenv());
+        }
+
+    }
+
+    public static class FailingApp {
+
+        public static void main(String[] args) {
+            throw new IllegalStateException("Unable to synthesize the app");
+        }
+
+    }
+
+}
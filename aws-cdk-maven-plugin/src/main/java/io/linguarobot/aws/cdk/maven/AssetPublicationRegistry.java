@@ -0,0 +1,43 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the asset publications performed during a deployment. An asset is identified by the environment,
+ * the destination (a bucket or a repository) and the key (an object key or an image tag) it's published to. The
+ * stacks referencing the same asset share a single publication, regardless of whether it's still in progress or
+ * has been already completed. A cancelled publication is started again once the asset is requested.
+ */
+public class AssetPublicationRegistry {
+
+    private final ConcurrentMap<List<String>, CompletableFuture<Void>> publications = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the publication of the asset, starting it with the given {@code publication} if the asset hasn't been
+     * published yet.
+     *
+     * @param environment the name of the environment
+     * @param destination the name of the bucket or repository the asset is published to
+     * @param key the object key or image tag of the asset
+     * @param publication starts the publication of the asset
+     * @return the publication of the asset
+     */
+    public CompletableFuture<Void> publish(String environment,
+                                           String destination,
+                                           String key,
+                                           Supplier<CompletableFuture<Void>> publication) {
+        Objects.requireNonNull(environment, "environment can't be null");
+        Objects.requireNonNull(destination, "destination can't be null");
+        Objects.requireNonNull(key, "key can't be null");
+        return publications.compute(ImmutableList.of(environment, destination, key), (k, existingPublication) ->
+                existingPublication != null && !existingPublication.isCancelled() ? existingPublication : publication.get());
+    }
+
+}
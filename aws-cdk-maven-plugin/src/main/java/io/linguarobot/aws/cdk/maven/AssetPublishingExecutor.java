@@ -0,0 +1,41 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executes file asset publishing tasks on a bounded pool. Docker image assets are published by the
+ * {@link DockerImageBuildScheduler}, so that CPU-heavy image builds don't hold up network-bound S3 uploads (and vice
+ * versa).
+ */
+public class AssetPublishingExecutor implements AutoCloseable {
+
+    private final ExecutorService fileExecutor;
+
+    /**
+     * @param fileConcurrency the maximum number of file assets published at the same time
+     */
+    public AssetPublishingExecutor(int fileConcurrency) {
+        if (fileConcurrency < 1) {
+            throw new IllegalArgumentException("The asset publishing concurrency must be greater than zero");
+        }
+        this.fileExecutor = Executors.newFixedThreadPool(fileConcurrency,
+                new ThreadFactoryBuilder().setNameFormat("cdk-file-publishing-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Schedules a file asset publishing task.
+     */
+    public CompletableFuture<Void> publishFile(Runnable task) {
+        return CompletableFuture.runAsync(task, fileExecutor);
+    }
+
+    @Override
+    public void close() {
+        fileExecutor.shutdownNow();
+    }
+
+}
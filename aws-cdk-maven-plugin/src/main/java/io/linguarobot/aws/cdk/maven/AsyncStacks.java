@@ -0,0 +1,155 @@
+package io.linguarobot.aws.cdk.maven;
+
+import software.amazon.awssdk.services.cloudformation.CloudFormationAsyncClient;
+import software.amazon.awssdk.services.cloudformation.model.CloudFormationException;
+import software.amazon.awssdk.services.cloudformation.model.CreateStackRequest;
+import software.amazon.awssdk.services.cloudformation.model.DeleteStackRequest;
+import software.amazon.awssdk.services.cloudformation.model.DescribeStackEventsRequest;
+import software.amazon.awssdk.services.cloudformation.model.DescribeStacksRequest;
+import software.amazon.awssdk.services.cloudformation.model.Stack;
+import software.amazon.awssdk.services.cloudformation.model.StackEvent;
+import software.amazon.awssdk.services.cloudformation.model.UpdateStackRequest;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The non-blocking counterpart of {@link Stacks}. The operations are performed with {@link CloudFormationAsyncClient}
+ * and none of them blocks the calling thread: the returned futures are completed by the client once the responses
+ * are received.
+ */
+public class AsyncStacks {
+
+    public static CompletableFuture<Optional<Stack>> findStack(CloudFormationAsyncClient client, String stackName) {
+        Objects.requireNonNull(client, "CloudFormation client can't be null");
+        Objects.requireNonNull(stackName, "stack name can't be null");
+        return getStack(client, stackName)
+                .thenApply(Optional::of)
+                .exceptionally(e -> {
+                    // Assuming that the exception is thrown only if the stack doesn't exist
+                    if (unwrap(e) instanceof CloudFormationException) {
+                        return Optional.empty();
+                    }
+                    throw propagate(e);
+                });
+    }
+
+    public static CompletableFuture<Stack> createStack(CloudFormationAsyncClient client,
+                                                       String stackName,
+                                                       TemplateRef template,
+                                                       Map<String, ParameterValue> parameters,
+                                                       Map<String, String> tags) {
+        Objects.requireNonNull(client, "CloudFormation client can't be null");
+        Objects.requireNonNull(stackName, "stack name can't be null");
+        Objects.requireNonNull(template, "template reference can't be null");
+        CreateStackRequest request = CreateStackRequest.builder()
+                .stackName(stackName)
+                .templateBody(template.getBody())
+                .templateURL(template.getUrl())
+                .tags(Stacks.buildTags(tags))
+                .parameters(parameters != null ? Stacks.buildParameters(parameters) : Collections.emptyList())
+                .capabilities(Stacks.CAPABILITIES)
+                .build();
+
+        return client.createStack(request)
+                .thenCompose(response -> getStack(client, response.stackId()));
+    }
+
+    public static CompletableFuture<Stack> updateStack(CloudFormationAsyncClient client,
+                                                       String stackName,
+                                                       TemplateRef template,
+                                                       Map<String, ParameterValue> parameters,
+                                                       Map<String, String> tags) {
+        Objects.requireNonNull(client, "CloudFormation client can't be null");
+        Objects.requireNonNull(stackName, "stack name can't be null");
+        Objects.requireNonNull(template, "template reference can't be null");
+        UpdateStackRequest request = UpdateStackRequest.builder()
+                .stackName(stackName)
+                .templateBody(template.getBody())
+                .templateURL(template.getUrl())
+                .tags(Stacks.buildTags(tags))
+                .parameters(parameters != null ? Stacks.buildParameters(parameters) : Collections.emptyList())
+                .capabilities(Stacks.CAPABILITIES)
+                .build();
+
+        return client.updateStack(request)
+                .thenCompose(response -> getStack(client, response.stackId()));
+    }
+
+    public static CompletableFuture<Stack> deleteStack(CloudFormationAsyncClient client, String stackName) {
+        Objects.requireNonNull(client, "CloudFormation client can't be null");
+        Objects.requireNonNull(stackName, "stack name can't be null");
+        return getStack(client, stackName)
+                .thenCompose(stack -> client.deleteStack(DeleteStackRequest.builder().stackName(stack.stackId()).build()))
+                .thenCompose(response -> getStack(client, stackName));
+    }
+
+    public static CompletableFuture<Stack> getStack(CloudFormationAsyncClient client, String stackName) {
+        DescribeStacksRequest request = DescribeStacksRequest.builder()
+                .stackName(stackName)
+                .build();
+        return client.describeStacks(request)
+                .thenApply(response -> response.stacks().get(0));
+    }
+
+    /**
+     * Passes the new events of the stack to the listener in chronological order. The events are paged from the most
+     * recent one until the last event seen by the listener (or the start of the operation) is reached.
+     *
+     * @return the number of new events
+     */
+    static CompletableFuture<Integer> consumeEvents(CloudFormationAsyncClient client,
+                                                    String stackId,
+                                                    Stacks.StackEventListener eventListener) {
+        return collectEvents(client, stackId, eventListener, null, new ArrayDeque<>())
+                .thenApply(events -> {
+                    events.descendingIterator().forEachRemaining(eventListener::onEvent);
+                    return events.size();
+                });
+    }
+
+    private static CompletableFuture<Deque<StackEvent>> collectEvents(CloudFormationAsyncClient client,
+                                                                      String stackId,
+                                                                      Stacks.StackEventListener eventListener,
+                                                                      @Nullable String token,
+                                                                      Deque<StackEvent> events) {
+        DescribeStackEventsRequest request = DescribeStackEventsRequest.builder()
+                .stackName(stackId)
+                .nextToken(token)
+                .build();
+        return client.describeStackEvents(request).thenCompose(response -> {
+            for (StackEvent event : response.stackEvents()) {
+                if (eventListener.isConsumed(event)) {
+                    return CompletableFuture.completedFuture(events);
+                }
+                events.add(event);
+            }
+
+            return response.nextToken() != null
+                    ? collectEvents(client, stackId, eventListener, response.nextToken(), events)
+                    : CompletableFuture.completedFuture(events);
+        });
+    }
+
+    /**
+     * Returns the actual cause of a failed stage, unwrapping the {@link CompletionException} added by the futures.
+     */
+    static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Wraps the exception, so that it can be rethrown from a stage of a future without being wrapped twice.
+     */
+    static CompletionException propagate(Throwable e) {
+        return e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+    }
+
+}
@@ -0,0 +1,58 @@
+package io.linguarobot.aws.cdk.maven;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A request body publishing the content of a byte buffer without copying it (unlike
+ * {@link AsyncRequestBody#fromByteBuffer(ByteBuffer)}). The buffer must not be modified until the request is completed.
+ *
+ * Every subscriber (for example, the one created when the request is retried) receives a read-only view of the
+ * content between the buffer's position and limit at the moment the body was created.
+ */
+public class ByteBufferAsyncRequestBody implements AsyncRequestBody {
+
+    private final ByteBuffer buffer;
+
+    public ByteBufferAsyncRequestBody(ByteBuffer buffer) {
+        this.buffer = buffer.asReadOnlyBuffer();
+    }
+
+    @Override
+    public Optional<Long> contentLength() {
+        return Optional.of((long) buffer.remaining());
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        subscriber.onSubscribe(new Subscription() {
+
+            private final AtomicBoolean done = new AtomicBoolean();
+
+            @Override
+            public void request(long n) {
+                if (done.compareAndSet(false, true)) {
+                    if (n <= 0) {
+                        subscriber.onError(new IllegalArgumentException("The number of requested elements must be positive"));
+                        return;
+                    }
+                    if (buffer.hasRemaining()) {
+                        subscriber.onNext(buffer.duplicate());
+                    }
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                done.set(true);
+            }
+        });
+    }
+
+}
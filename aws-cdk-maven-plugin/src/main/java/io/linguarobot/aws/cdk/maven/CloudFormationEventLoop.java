@@ -0,0 +1,70 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import software.amazon.awssdk.core.client.config.ClientAsyncConfiguration;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.services.cloudformation.CloudFormationAsyncClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides non-blocking CloudFormation clients sharing the same I/O event loop. The requests of all the clients are
+ * sent and received by a couple of event loop threads, while the returned futures are completed on a small dedicated
+ * pool, so that neither the common pool nor the threads of the build are occupied waiting for the responses.
+ */
+public class CloudFormationEventLoop implements AutoCloseable {
+
+    private static final int EVENT_LOOP_THREADS = 2;
+    private static final int COMPLETION_THREADS = 2;
+
+    private final SdkAsyncHttpClient httpClient;
+    private final ExecutorService completionExecutor;
+    private final List<CloudFormationAsyncClient> clients;
+
+    public CloudFormationEventLoop() {
+        SdkEventLoopGroup eventLoopGroup = SdkEventLoopGroup.create(EVENT_LOOP_THREADS,
+                new ThreadFactoryBuilder().setNameFormat("cdk-cloudformation-io-%d").setDaemon(true).build());
+        this.httpClient = NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(eventLoopGroup)
+                .build();
+        ThreadPoolExecutor completionExecutor = new ThreadPoolExecutor(COMPLETION_THREADS, COMPLETION_THREADS,
+                1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("cdk-cloudformation-%d").setDaemon(true).build());
+        completionExecutor.allowCoreThreadTimeOut(true);
+        this.completionExecutor = completionExecutor;
+        this.clients = new ArrayList<>();
+    }
+
+    /**
+     * Creates a client for the given environment. The client is closed together with the event loop.
+     */
+    public synchronized CloudFormationAsyncClient createClient(ResolvedEnvironment environment) {
+        CloudFormationAsyncClient client = CloudFormationAsyncClient.builder()
+                .region(environment.getRegion())
+                .credentialsProvider(environment.getCredentialsProvider())
+                .httpClient(httpClient)
+                .asyncConfiguration(ClientAsyncConfiguration.builder()
+                        .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, completionExecutor)
+                        .build())
+                .build();
+        clients.add(client);
+        return client;
+    }
+
+    @Override
+    public synchronized void close() {
+        clients.forEach(CloudFormationAsyncClient::close);
+        clients.clear();
+        httpClient.close();
+        completionExecutor.shutdownNow();
+    }
+
+}
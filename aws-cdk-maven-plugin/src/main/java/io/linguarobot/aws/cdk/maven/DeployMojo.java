@@ -11,10 +11,14 @@ import org.apache.maven.settings.Settings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Deploys the synthesized templates to the AWS.
@@ -55,6 +59,55 @@ public class DeployMojo extends AbstractCloudActionMojo {
     @Parameter
     private Map<String, String> tags;
 
+    /**
+     * The maximum number of stacks that can be deployed at the same time. A stack is deployed as soon as all the
+     * stacks it depends on have been deployed.
+     */
+    @Parameter(property = "aws.cdk.deploy.concurrency", defaultValue = "1")
+    private int concurrency;
+
+    /**
+     * The maximum number of file assets (including the templates that are too large to be passed inline) uploaded to
+     * S3 at the same time.
+     */
+    @Parameter(property = "aws.cdk.publish.files.concurrency", defaultValue = "4")
+    private int fileAssetConcurrency;
+
+    /**
+     * The maximum number of parts of a file or zipped directory asset uploaded to S3 at the same time. Each in-flight
+     * part of a zipped directory holds a 5 MB buffer, so the memory used by an upload is bounded by this number.
+     */
+    @Parameter(property = "aws.cdk.publish.files.parts", defaultValue = "4")
+    private int fileAssetMaxInFlightParts;
+
+    /**
+     * Whether the parts of the zipped directory assets are buffered outside of the heap.
+     */
+    @Parameter(property = "aws.cdk.publish.files.direct.buffers", defaultValue = "false")
+    private boolean fileAssetDirectBuffers;
+
+    /**
+     * The maximum number of Docker image assets built at the same time. The images of the stacks that will be updated
+     * are built as soon as the deployment starts.
+     */
+    @Parameter(property = "aws.cdk.publish.images.concurrency", defaultValue = "2")
+    private int imageAssetConcurrency;
+
+    /**
+     * The maximum number of Docker image assets pushed to ECR at the same time. An image is pushed as soon as it has
+     * been built.
+     */
+    @Parameter(property = "aws.cdk.publish.images.push.concurrency", defaultValue = "4")
+    private int imagePushConcurrency;
+
+    /**
+     * Whether the Docker image assets are built with the layer cache stored in their ECR repositories. The cache is
+     * pulled before the build and the updated cache is pushed along with the image, so that only the changed layers
+     * are rebuilt on the machines that don't have the layers locally.
+     */
+    @Parameter(property = "aws.cdk.publish.images.cache", defaultValue = "false")
+    private boolean imageLayerCache;
+
     @Override
     public void execute(CloudDefinition cloudDefinition, EnvironmentResolver environmentResolver) {
         if (stacks != null && !stacks.isEmpty() && logger.isWarnEnabled()) {
@@ -67,26 +120,47 @@ public class DeployMojo extends AbstractCloudActionMojo {
         }
 
         ProcessRunner processRunner = new DefaultProcessRunner(project.getBasedir());
+        Path archiveCacheDirectory = Paths.get(project.getBuild().getDirectory(), "cdk.cache", "archives");
+        Path imageCacheDirectory = Paths.get(project.getBuild().getDirectory(), "cdk.cache", "images");
+        DockerSession dockerSession = new DockerSession(processRunner);
         Map<String, StackDeployer> deployers = new HashMap<>();
-
-
-        for (StackDefinition stack : cloudDefinition.getStacks()) {
-            if (this.stacks == null || this.stacks.isEmpty() || this.stacks.contains(stack.getStackName())) {
-                StackDeployer deployer = deployers.computeIfAbsent(stack.getEnvironment(), environment -> {
-                    ResolvedEnvironment resolvedEnvironment = environmentResolver.resolve(environment);
-                    DockerImageAssetPublisher dockerImagePublisher = new DockerImageAssetPublisher(resolvedEnvironment, processRunner);
-                    FileAssetPublisher filePublisher = new FileAssetPublisher(resolvedEnvironment);
-                    ToolkitConfiguration toolkitConfiguration = new ToolkitConfiguration(toolkitStackName);
-                    return new StackDeployer(cloudDefinition.getCloudAssemblyDirectory(), resolvedEnvironment,
-                            toolkitConfiguration, filePublisher, dockerImagePublisher, settings);
-                });
-
+        List<StackDefinition> deployedStacks = cloudDefinition.getStacks().stream()
+                .filter(stack -> this.stacks == null || this.stacks.isEmpty() || this.stacks.contains(stack.getStackName()))
+                .collect(Collectors.toList());
+
+        AssetPublicationRegistry publicationRegistry = new AssetPublicationRegistry();
+        try (AssetPublishingExecutor publishingExecutor = new AssetPublishingExecutor(fileAssetConcurrency);
+             DockerImageBuildScheduler imageBuildScheduler = new DockerImageBuildScheduler(imageAssetConcurrency, imagePushConcurrency);
+             StackPreparationExecutor preparationExecutor = new StackPreparationExecutor(concurrency);
+             CloudFormationEventLoop eventLoop = new CloudFormationEventLoop()) {
+            deployedStacks.forEach(stack -> deployers.computeIfAbsent(stack.getEnvironment(), environment -> {
+                ResolvedEnvironment resolvedEnvironment = environmentResolver.resolve(environment);
+                DockerImageAssetPublisher dockerImagePublisher = new DockerImageAssetPublisher(resolvedEnvironment, processRunner,
+                        dockerSession, imageCacheDirectory, imageLayerCache);
+                FileAssetPublisher filePublisher = new FileAssetPublisher(resolvedEnvironment, archiveCacheDirectory,
+                        fileAssetMaxInFlightParts, fileAssetDirectBuffers);
+                ToolkitConfiguration toolkitConfiguration = new ToolkitConfiguration(toolkitStackName);
+                return new StackDeployer(cloudDefinition.getCloudAssemblyDirectory(), resolvedEnvironment,
+                        eventLoop.createClient(resolvedEnvironment), toolkitConfiguration, filePublisher,
+                        dockerImagePublisher, publishingExecutor, imageBuildScheduler, preparationExecutor, publicationRegistry, settings);
+            }));
+
+            Map<String, String> stackParameters = parameters != null ? parameters : ImmutableMap.of();
+            Map<String, String> stackTags = tags != null ? tags : ImmutableMap.of();
+            deployedStacks.stream()
+                    .filter(stack -> !stack.getResources().isEmpty())
+                    .collect(Collectors.groupingBy(StackDefinition::getEnvironment))
+                    .forEach((environment, stacks) -> deployers.get(environment)
+                            .scheduleImagePublications(stacks, stackParameters, stackTags));
+
+            new StackDeploymentScheduler(concurrency).deployAsync(deployedStacks, stack -> {
+                StackDeployer deployer = deployers.get(stack.getEnvironment());
                 if (!stack.getResources().isEmpty()) {
-                    deployer.deploy(stack, parameters != null ? parameters : ImmutableMap.of(), tags != null ? tags : ImmutableMap.of());
+                    return deployer.deployAsync(stack, stackParameters, stackTags);
                 } else {
-                    deployer.destroy(stack);
+                    return deployer.destroyAsync(stack);
                 }
-            }
+            }, stack -> deployers.get(stack.getEnvironment()).cancelImagePublications(stack));
         }
     }
 
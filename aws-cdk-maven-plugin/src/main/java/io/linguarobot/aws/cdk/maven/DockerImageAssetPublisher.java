@@ -1,42 +1,85 @@
 package io.linguarobot.aws.cdk.maven;
 
 import com.google.common.collect.ImmutableList;
+import io.linguarobot.aws.cdk.maven.process.ProcessContext;
 import io.linguarobot.aws.cdk.maven.process.ProcessExecutionException;
 import io.linguarobot.aws.cdk.maven.process.ProcessRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.services.ecr.EcrClient;
-import software.amazon.awssdk.services.ecr.model.AuthorizationData;
-import software.amazon.awssdk.services.ecr.model.CreateRepositoryRequest;
-import software.amazon.awssdk.services.ecr.model.CreateRepositoryResponse;
-import software.amazon.awssdk.services.ecr.model.DescribeImagesRequest;
-import software.amazon.awssdk.services.ecr.model.DescribeImagesResponse;
-import software.amazon.awssdk.services.ecr.model.DescribeRepositoriesRequest;
-import software.amazon.awssdk.services.ecr.model.DescribeRepositoriesResponse;
-import software.amazon.awssdk.services.ecr.model.ImageDetail;
-import software.amazon.awssdk.services.ecr.model.ImageIdentifier;
-import software.amazon.awssdk.services.ecr.model.ImageNotFoundException;
 import software.amazon.awssdk.services.ecr.model.Repository;
-import software.amazon.awssdk.services.ecr.model.RepositoryNotFoundException;
 
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class DockerImageAssetPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(DockerImageAssetPublisher.class);
 
-    private final ResolvedEnvironment environment;
-    private final ProcessRunner processRunner;
+    private static final String BUILDKIT_VARIABLE_NAME = "DOCKER_BUILDKIT";
 
-    private EcrClient ecrClient;
+    /**
+     * The build argument that makes BuildKit embed the layer cache metadata into the built image.
+     */
+    private static final String INLINE_CACHE_ARGUMENT = "BUILDKIT_INLINE_CACHE";
+
+    private final ProcessRunner processRunner;
+    private final DockerSession dockerSession;
+    private final EcrSession ecrSession;
+    private final Path imageCacheDirectory;
+    private final boolean remoteLayerCache;
 
     public DockerImageAssetPublisher(ResolvedEnvironment environment,ProcessRunner processRunner) {
-        this.environment = environment;
+        this(environment, processRunner, new DockerSession(processRunner), null, false);
+    }
+
+    /**
+     * @param dockerSession the Docker session shared by the publishers of all the environments
+     * @param imageCacheDirectory the directory where the IDs of the built images are recorded by the digests of their
+     *                            builds or {@code null} if the images must always be built
+     * @param remoteLayerCache whether the layer cache of the builds is pulled from and pushed to the asset repository
+     */
+    public DockerImageAssetPublisher(ResolvedEnvironment environment,
+                                     ProcessRunner processRunner,
+                                     DockerSession dockerSession,
+                                     @Nullable Path imageCacheDirectory,
+                                     boolean remoteLayerCache) {
+        this(processRunner, dockerSession, new EcrSession(environment, processRunner, dockerSession),
+                imageCacheDirectory, remoteLayerCache);
+    }
+
+    public DockerImageAssetPublisher(ProcessRunner processRunner, EcrSession ecrSession) {
+        this(processRunner, ecrSession, null, false);
+    }
+
+    public DockerImageAssetPublisher(ProcessRunner processRunner,
+                                     EcrSession ecrSession,
+                                     @Nullable Path imageCacheDirectory,
+                                     boolean remoteLayerCache) {
+        this(processRunner, new DockerSession(processRunner), ecrSession, imageCacheDirectory, remoteLayerCache);
+    }
+
+    public DockerImageAssetPublisher(ProcessRunner processRunner,
+                                     DockerSession dockerSession,
+                                     EcrSession ecrSession,
+                                     @Nullable Path imageCacheDirectory,
+                                     boolean remoteLayerCache) {
         this.processRunner = processRunner;
+        this.dockerSession = dockerSession;
+        this.ecrSession = ecrSession;
+        this.imageCacheDirectory = imageCacheDirectory;
+        this.remoteLayerCache = remoteLayerCache;
     }
 
     /**
@@ -47,128 +90,226 @@ public class DockerImageAssetPublisher {
      * @param imageBuild build definition
      */
     public void publish(String repositoryName, String tag, ImageBuild imageBuild) {
-        ImageDetail image = findImage(repositoryName, tag).orElse(null);
-        if (image == null) {
-            ensureDockerInstalled();
+        if (!isPublished(repositoryName, tag)) {
+            build(repositoryName, imageBuild);
+            push(repositoryName, tag, imageBuild);
+        }
+    }
 
-            AuthorizationData authorizationData = getAuthorizationData()
-                    .orElseThrow(() -> new CdkPluginException("Unable to retrieve authorization token from ECR"));
-            try {
-                processRunner.run(toDockerLoginCommand(authorizationData));
-            } catch (ProcessExecutionException e) {
-                throw new CdkPluginException("Unable to add ECR authorization data");
-            }
+    /**
+     * Checks whether the image with the given tag has been already published to the repository.
+     */
+    public boolean isPublished(String repositoryName, String tag) {
+        return ecrSession.isPublished(repositoryName, tag);
+    }
 
-            logger.info("Building docker image before publishing it to the ECR, dockerFile={}", imageBuild.getDockerfile());
-            try {
-                processRunner.run(toBuildCommand(imageBuild));
-            } catch (ProcessExecutionException e) {
-                throw new CdkPluginException("Failed to build the docker image from " + imageBuild.getDockerfile() +
-                        ". Please make sure that the Docker daemon is running");
-            }
+    /**
+     * Checks in advance which of the images with the given tags have been already published to the repository, so
+     * that the subsequent {@link #isPublished(String, String)} calls for these images don't require a request each.
+     *
+     * @return the tags of the published images
+     */
+    public Set<String> checkPublishedImages(String repositoryName, Collection<String> tags) {
+        return ecrSession.checkImages(repositoryName, tags);
+    }
 
-            Repository repository = findRepository(repositoryName)
-                    .orElseGet(() -> createRepository(repositoryName));
-            String imageUri = String.join(":", repository.repositoryUri(), tag);
-            processRunner.run(ImmutableList.of("docker", "tag", imageBuild.getImageTag(), imageUri));
+    /**
+     * Builds the image locally, tagging it with the {@link ImageBuild#getImageTag() local tag}. The image is built
+     * with BuildKit. If the image cache directory is specified and an image has been already built from the same
+     * context, Dockerfile, build arguments and target, that image is tagged instead of being rebuilt. If the remote
+     * layer cache is enabled, the layers of the {@link ImageBuild#getCacheTag() cache image} in the repository are
+     * reused by the build.
+     *
+     * @param repositoryName the name of the repository the image is published to
+     * @param imageBuild build definition
+     */
+    public void build(String repositoryName, ImageBuild imageBuild) {
+        dockerSession.ensureDockerInstalled();
 
-            logger.info("Publishing docker image, imageUri={}", imageUri);
-            try {
-                processRunner.run(ImmutableList.of("docker", "push", imageUri));
-            } catch (ProcessExecutionException e) {
-                throw new CdkPluginException("Unable to push the image " + imageUri + " to the ECR repository");
-            }
+        String digest = imageCacheDirectory != null ? computeDigest(imageBuild) : null;
+        if (digest == null) {
+            runBuild(repositoryName, imageBuild);
+            return;
         }
+
+        dockerSession.build(digest, () -> {
+            Path imageIdFile = imageCacheDirectory.resolve(digest);
+            String imageId = findCachedImage(imageIdFile).orElse(null);
+            if (imageId != null) {
+                logger.info("The docker image has been already built from the same context, dockerFile={}, imageId={}",
+                        imageBuild.getDockerfile(), imageId);
+                try {
+                    processRunner.run(ImmutableList.of("docker", "tag", imageId, imageBuild.getImageTag()));
+                    return;
+                } catch (ProcessExecutionException e) {
+                    logger.debug("Unable to tag the image {}, the image will be built", imageId, e);
+                }
+            }
+
+            runBuild(repositoryName, imageBuild);
+            recordImage(imageIdFile, imageBuild.getImageTag());
+        });
     }
 
-    private void ensureDockerInstalled() {
+    private void runBuild(String repositoryName, ImageBuild imageBuild) {
+        // the cache image is resolved only when the image is actually built as it requires logging in to the registry
+        String cacheImageUri = remoteLayerCache && imageBuild.getCacheTag() != null
+                ? getCacheImageUri(repositoryName, imageBuild.getCacheTag())
+                : null;
+        logger.info("Building docker image before publishing it to the ECR, dockerFile={}", imageBuild.getDockerfile());
+        Map<String, String> environment = new HashMap<>(System.getenv());
+        environment.put(BUILDKIT_VARIABLE_NAME, "1");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ProcessContext processContext = ProcessContext.builder()
+                .withEnvironment(environment)
+                .withOutput(output)
+                .build();
         try {
-            processRunner.run(Arrays.asList("docker", "--version"));
+            processRunner.run(toBuildCommand(imageBuild, cacheImageUri), processContext);
         } catch (ProcessExecutionException e) {
-            throw new CdkPluginException("Docker is required in order to build container assets");
+            String buildOutput = new String(output.toByteArray(), StandardCharsets.UTF_8).trim();
+            if (!buildOutput.isEmpty()) {
+                logger.error("The build of the docker image {} has failed, dockerFile={}:\n{}",
+                        imageBuild.getImageTag(), imageBuild.getDockerfile(), buildOutput);
+            }
+            throw new CdkPluginException("Failed to build the docker image from " + imageBuild.getDockerfile() +
+                    (buildOutput.isEmpty() ? ". Please make sure that the Docker daemon is running" : ", see the build output above"), e);
         }
+        logger.debug("The docker image {} has been built:\n{}", imageBuild.getImageTag(),
+                new String(output.toByteArray(), StandardCharsets.UTF_8).trim());
     }
 
-    private List<String> toBuildCommand(ImageBuild build) {
-        List<String> buildCommand = new ArrayList<>();
-        buildCommand.add("docker");
-        buildCommand.add("build");
-        buildCommand.add("--tag");
-        buildCommand.add(build.getImageTag());
+    /**
+     * Pushes the locally built image to the repository, creating the repository if it doesn't exist.
+     */
+    public void push(String repositoryName, String tag, ImageBuild imageBuild) {
+        ecrSession.login();
 
-        build.getArguments().forEach((name, value) -> {
-            buildCommand.add("--build-arg");
-            buildCommand.add(String.join("=", name, value));
-        });
-        if (build.getTarget() != null) {
-            buildCommand.add("--target");
-            buildCommand.add(build.getTarget());
+        Repository repository = ecrSession.getRepository(repositoryName);
+        String imageUri = String.join(":", repository.repositoryUri(), tag);
+        processRunner.run(ImmutableList.of("docker", "tag", imageBuild.getImageTag(), imageUri));
+
+        logger.info("Publishing docker image, imageUri={}", imageUri);
+        try {
+            processRunner.run(ImmutableList.of("docker", "push", imageUri));
+        } catch (ProcessExecutionException e) {
+            throw new CdkPluginException("Unable to push the image " + imageUri + " to the ECR repository");
         }
-        buildCommand.add("--file");
-        buildCommand.add(build.getDockerfile().toString());
-        buildCommand.add(build.getContextDirectory().toString());
+        ecrSession.setPublished(repositoryName, tag);
 
-        return buildCommand;
+        if (remoteLayerCache && imageBuild.getCacheTag() != null) {
+            pushCache(repository, imageBuild);
+        }
     }
 
-    private EcrClient getEcrClient() {
-        if (this.ecrClient == null) {
-            this.ecrClient = EcrClient.builder()
-                    .region(environment.getRegion())
-                    .credentialsProvider(environment.getCredentialsProvider())
-                    .build();
+    /**
+     * Pushes the built image (which embeds the layer cache metadata) as the cache image of the build, so that the
+     * next build can reuse its layers. Only the manifest is uploaded as the layers have been already pushed with the
+     * image. The failure to push the cache doesn't fail the publication.
+     */
+    private void pushCache(Repository repository, ImageBuild imageBuild) {
+        String cacheImageUri = String.join(":", repository.repositoryUri(), imageBuild.getCacheTag());
+        logger.debug("Publishing docker image layer cache, imageUri={}", cacheImageUri);
+        try {
+            processRunner.run(ImmutableList.of("docker", "tag", imageBuild.getImageTag(), cacheImageUri));
+            processRunner.run(ImmutableList.of("docker", "push", cacheImageUri));
+        } catch (ProcessExecutionException e) {
+            logger.warn("Unable to push the layer cache image {} to the ECR repository", cacheImageUri);
         }
+    }
 
-        return ecrClient;
+    /**
+     * Returns the URI of the cache image, logging in to the registry so that the cache can be pulled by the build.
+     * The cache is not used if the repository can't be accessed.
+     */
+    @Nullable
+    private String getCacheImageUri(String repositoryName, String cacheTag) {
+        try {
+            ecrSession.login();
+            Repository repository = ecrSession.getRepository(repositoryName);
+            return String.join(":", repository.repositoryUri(), cacheTag);
+        } catch (RuntimeException e) {
+            logger.warn("Unable to access the ECR repository {}, the image will be built without the layer cache: {}",
+                    repositoryName, e.getMessage());
+            return null;
+        }
     }
 
-    private List<String> toDockerLoginCommand(AuthorizationData authorizationData) {
-        String[] userPassword = new String(Base64.getDecoder().decode(authorizationData.authorizationToken())).split(":");
-        return ImmutableList.of("docker", "login",
-                "--username", userPassword[0],
-                "--password", userPassword[1],
-                authorizationData.proxyEndpoint()
-        );
+    @Nullable
+    private String computeDigest(ImageBuild imageBuild) {
+        try {
+            return ImageBuildDigest.compute(imageBuild);
+        } catch (IOException e) {
+            logger.warn("Unable to compute the digest of the docker image build, the image will be built: {}",
+                    e.getMessage());
+            return null;
+        }
     }
 
-    private Optional<ImageDetail> findImage(String repositoryName, String imageTag) {
-        DescribeImagesRequest describeRequest = DescribeImagesRequest.builder()
-                .repositoryName(repositoryName)
-                .imageIds(ImageIdentifier.builder()
-                        .imageTag(imageTag)
-                        .build())
-                .build();
+    /**
+     * Returns the ID of the image recorded in the given file if the image still exists locally.
+     */
+    private Optional<String> findCachedImage(Path imageIdFile) {
+        if (!Files.isRegularFile(imageIdFile)) {
+            return Optional.empty();
+        }
+
         try {
-            DescribeImagesResponse response = getEcrClient().describeImages(describeRequest);
-            return response.imageDetails().stream().findFirst();
-        } catch (ImageNotFoundException|RepositoryNotFoundException e) {
+            String imageId = new String(Files.readAllBytes(imageIdFile), StandardCharsets.UTF_8).trim();
+            return Optional.of(getImageId(imageId));
+        } catch (IOException | ProcessExecutionException e) {
+            logger.debug("The image recorded in {} can't be used", imageIdFile, e);
             return Optional.empty();
         }
     }
 
-    private Optional<Repository> findRepository(String name) {
-        DescribeRepositoriesRequest describeRequest = DescribeRepositoriesRequest.builder()
-                .repositoryNames(name)
-                .build();
+    private void recordImage(Path imageIdFile, String imageTag) {
         try {
-            DescribeRepositoriesResponse response = getEcrClient().describeRepositories(describeRequest);
-            return response.repositories().stream()
-                    .findFirst();
-        } catch (RepositoryNotFoundException e) {
-            return Optional.empty();
+            String imageId = getImageId(imageTag);
+            Files.createDirectories(imageIdFile.getParent());
+            // the file is written atomically as the same image might be built by several builds at the same time
+            Path temporaryFile = Files.createTempFile(imageIdFile.getParent(), imageIdFile.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporaryFile, imageId.getBytes(StandardCharsets.UTF_8));
+                Files.move(temporaryFile, imageIdFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException | ProcessExecutionException e) {
+            logger.warn("Unable to record the ID of the docker image {} in {}: {}", imageTag, imageIdFile, e.getMessage());
         }
     }
 
-    private Repository createRepository(String name) {
-        CreateRepositoryRequest createRequest = CreateRepositoryRequest.builder()
-                .repositoryName(name)
-                .build();
-        CreateRepositoryResponse response = getEcrClient().createRepository(createRequest);
-        return response.repository();
+    private String getImageId(String image) {
+        return processRunner.run(ImmutableList.of("docker", "image", "inspect", "--format", "{{.Id}}", image)).trim();
     }
 
-    private Optional<AuthorizationData> getAuthorizationData() {
-        return getEcrClient().getAuthorizationToken().authorizationData().stream().findFirst();
+    private List<String> toBuildCommand(ImageBuild build, @Nullable String cacheImageUri) {
+        List<String> buildCommand = new ArrayList<>();
+        buildCommand.add("docker");
+        buildCommand.add("build");
+        buildCommand.add("--tag");
+        buildCommand.add(build.getImageTag());
+
+        build.getArguments().forEach((name, value) -> {
+            buildCommand.add("--build-arg");
+            buildCommand.add(String.join("=", name, value));
+        });
+        if (build.getTarget() != null) {
+            buildCommand.add("--target");
+            buildCommand.add(build.getTarget());
+        }
+        if (cacheImageUri != null) {
+            buildCommand.add("--build-arg");
+            buildCommand.add(String.join("=", INLINE_CACHE_ARGUMENT, "1"));
+            buildCommand.add("--cache-from");
+            buildCommand.add(cacheImageUri);
+        }
+        buildCommand.add("--file");
+        buildCommand.add(build.getDockerfile().toString());
+        buildCommand.add(build.getContextDirectory().toString());
+
+        return buildCommand;
     }
 
 }
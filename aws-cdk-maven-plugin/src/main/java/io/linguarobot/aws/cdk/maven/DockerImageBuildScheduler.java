@@ -0,0 +1,112 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the publication of Docker image assets. The images are built concurrently on a bounded pool, while each
+ * built image is pushed to ECR on a separate pool as soon as its build has finished, so that the pushes (which are
+ * network-bound) don't hold up the builds (which are CPU-bound).
+ *
+ * A publication can be cancelled by cancelling its future: the steps that haven't started yet are skipped, while the
+ * step in progress (a build or a push) is completed as the docker processes are never interrupted.
+ */
+public class DockerImageBuildScheduler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DockerImageBuildScheduler.class);
+
+    private final ExecutorService buildExecutor;
+    private final ExecutorService pushExecutor;
+    private final Set<CompletableFuture<Void>> publications;
+
+    /**
+     * @param buildConcurrency the maximum number of images built at the same time
+     * @param pushConcurrency the maximum number of images pushed at the same time
+     */
+    public DockerImageBuildScheduler(int buildConcurrency, int pushConcurrency) {
+        if (buildConcurrency < 1 || pushConcurrency < 1) {
+            throw new IllegalArgumentException("The image publishing concurrency must be greater than zero");
+        }
+        this.buildExecutor = Executors.newFixedThreadPool(buildConcurrency,
+                new ThreadFactoryBuilder().setNameFormat("cdk-image-build-%d").setDaemon(true).build());
+        this.pushExecutor = Executors.newFixedThreadPool(pushConcurrency,
+                new ThreadFactoryBuilder().setNameFormat("cdk-image-push-%d").setDaemon(true).build());
+        this.publications = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Schedules the publication of the image. The image is built and pushed only if the repository doesn't contain
+     * an image with the given tag yet.
+     *
+     * @param publisher the publisher for the environment the image is published to
+     * @param repositoryName the name of the repository
+     * @param tag the image tag
+     * @param imageBuild the build definition
+     * @return the future completed once the image is published, cancelling the future cancels the publication
+     */
+    public CompletableFuture<Void> schedule(DockerImageAssetPublisher publisher,
+                                            String repositoryName,
+                                            String tag,
+                                            ImageBuild imageBuild) {
+        CompletableFuture<Void> publication = new CompletableFuture<>();
+        publications.add(publication);
+        CompletableFuture.supplyAsync(() -> !publication.isDone() && !publisher.isPublished(repositoryName, tag), pushExecutor)
+                .thenCompose(required -> {
+                    if (!required) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    return CompletableFuture.runAsync(() -> {
+                        if (!publication.isDone()) {
+                            publisher.build(repositoryName, imageBuild);
+                        }
+                    }, buildExecutor).thenRunAsync(() -> {
+                        if (!publication.isDone()) {
+                            publisher.push(repositoryName, tag, imageBuild);
+                        }
+                    }, pushExecutor);
+                })
+                .whenComplete((r, e) -> {
+                    publications.remove(publication);
+                    if (e != null) {
+                        publication.completeExceptionally(AsyncStacks.unwrap(e));
+                    } else {
+                        publication.complete(null);
+                    }
+                });
+
+        return publication;
+    }
+
+    /**
+     * Cancels the outstanding publications and waits until the builds and pushes in progress are completed.
+     */
+    @Override
+    public void close() {
+        if (!publications.isEmpty()) {
+            logger.debug("Cancelling {} outstanding docker image publications", publications.size());
+            publications.forEach(publication -> publication.cancel(false));
+        }
+
+        buildExecutor.shutdown();
+        pushExecutor.shutdown();
+        try {
+            // the steps scheduled after the pools are shut down are rejected, which fails only the cancelled publications
+            buildExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            pushExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            buildExecutor.shutdownNow();
+            pushExecutor.shutdownNow();
+        }
+    }
+
+}
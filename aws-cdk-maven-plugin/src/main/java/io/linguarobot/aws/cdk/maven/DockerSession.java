@@ -0,0 +1,100 @@
+package io.linguarobot.aws.cdk.maven;
+
+import io.linguarobot.aws.cdk.maven.process.ProcessExecutionException;
+import io.linguarobot.aws.cdk.maven.process.ProcessRunner;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the state of the interaction with the local Docker during a deployment, which is shared by the image
+ * publications to all the environments: whether the Docker CLI has been found, the lock of the registry logins and
+ * the locks of the image builds in progress.
+ */
+public class DockerSession {
+
+    private final ProcessRunner processRunner;
+    private final Object loginLock;
+    private final Map<String, BuildLock> buildLocks;
+
+    /**
+     * Whether the Docker CLI has been found. Only the successful check is remembered, so the CLI is checked once per
+     * deployment.
+     */
+    private volatile boolean dockerInstalled;
+
+    public DockerSession(ProcessRunner processRunner) {
+        this.processRunner = processRunner;
+        this.loginLock = new Object();
+        this.buildLocks = new HashMap<>();
+    }
+
+    /**
+     * Makes sure that the Docker CLI is installed.
+     *
+     * @throws CdkPluginException if the Docker CLI cannot be found
+     */
+    public void ensureDockerInstalled() {
+        if (dockerInstalled) {
+            return;
+        }
+
+        try {
+            processRunner.run(Arrays.asList("docker", "--version"));
+        } catch (ProcessExecutionException e) {
+            throw new CdkPluginException("Docker is required in order to build container assets");
+        }
+        dockerInstalled = true;
+    }
+
+    /**
+     * Performs the login to a registry. The logins are performed one at a time, as concurrent logins would race on the
+     * Docker configuration file.
+     */
+    public void login(Runnable login) {
+        synchronized (loginLock) {
+            login.run();
+        }
+    }
+
+    /**
+     * Performs the build of the image with the given digest, so that an image that is published to several
+     * environments is built only once even if the publications run at the same time. The lock of the digest is
+     * discarded once no build of the image is in progress.
+     */
+    public void build(String digest, Runnable build) {
+        BuildLock buildLock;
+        synchronized (buildLocks) {
+            buildLock = buildLocks.computeIfAbsent(digest, d -> new BuildLock());
+            buildLock.holders++;
+        }
+        try {
+            synchronized (buildLock) {
+                build.run();
+            }
+        } finally {
+            synchronized (buildLocks) {
+                if (--buildLock.holders == 0) {
+                    buildLocks.remove(digest);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the image digests that currently have a build lock.
+     */
+    int getBuildLockCount() {
+        synchronized (buildLocks) {
+            return buildLocks.size();
+        }
+    }
+
+    private static class BuildLock {
+
+        private int holders;
+
+    }
+
+}
@@ -0,0 +1,248 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import io.linguarobot.aws.cdk.maven.process.ProcessExecutionException;
+import io.linguarobot.aws.cdk.maven.process.ProcessRunner;
+import software.amazon.awssdk.services.ecr.EcrClient;
+import software.amazon.awssdk.services.ecr.model.AuthorizationData;
+import software.amazon.awssdk.services.ecr.model.BatchGetImageRequest;
+import software.amazon.awssdk.services.ecr.model.BatchGetImageResponse;
+import software.amazon.awssdk.services.ecr.model.CreateRepositoryRequest;
+import software.amazon.awssdk.services.ecr.model.CreateRepositoryResponse;
+import software.amazon.awssdk.services.ecr.model.DescribeImagesRequest;
+import software.amazon.awssdk.services.ecr.model.DescribeImagesResponse;
+import software.amazon.awssdk.services.ecr.model.DescribeRepositoriesRequest;
+import software.amazon.awssdk.services.ecr.model.DescribeRepositoriesResponse;
+import software.amazon.awssdk.services.ecr.model.ImageDetail;
+import software.amazon.awssdk.services.ecr.model.ImageFailureCode;
+import software.amazon.awssdk.services.ecr.model.ImageIdentifier;
+import software.amazon.awssdk.services.ecr.model.ImageNotFoundException;
+import software.amazon.awssdk.services.ecr.model.Repository;
+import software.amazon.awssdk.services.ecr.model.RepositoryAlreadyExistsException;
+import software.amazon.awssdk.services.ecr.model.RepositoryNotFoundException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the state of the interaction with the ECR of an environment during a deployment: the ECR client, the
+ * authorization token (until shortly before it expires), the Docker login to the registry, the repositories that
+ * have been looked up or created and the images that are known to exist (or not).
+ */
+public class EcrSession {
+
+    /**
+     * The time before the expiration of the authorization token when a new token is requested, so that the token
+     * doesn't expire while an image is being pushed.
+     */
+    private static final Duration TOKEN_REFRESH_MARGIN = Duration.ofMinutes(15);
+
+    /**
+     * The maximum number of image IDs in a single {@code BatchGetImage} request.
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final Supplier<EcrClient> ecrClient;
+    private final ProcessRunner processRunner;
+    private final DockerSession dockerSession;
+    private final Clock clock;
+    private final ConcurrentMap<String, Repository> repositories;
+    private final ConcurrentMap<List<String>, Boolean> images;
+
+    private AuthorizationData authorizationData;
+
+    /**
+     * @param dockerSession the Docker session the logins to the registry are synchronized with
+     */
+    public EcrSession(ResolvedEnvironment environment, ProcessRunner processRunner, DockerSession dockerSession) {
+        this(() -> EcrClient.builder()
+                .region(environment.getRegion())
+                .credentialsProvider(environment.getCredentialsProvider())
+                .build(), processRunner, dockerSession, Clock.systemUTC());
+    }
+
+    EcrSession(Supplier<EcrClient> ecrClient, ProcessRunner processRunner, Clock clock) {
+        this(ecrClient, processRunner, new DockerSession(processRunner), clock);
+    }
+
+    EcrSession(Supplier<EcrClient> ecrClient, ProcessRunner processRunner, DockerSession dockerSession, Clock clock) {
+        this.ecrClient = Suppliers.memoize(ecrClient::get);
+        this.processRunner = processRunner;
+        this.dockerSession = dockerSession;
+        this.clock = clock;
+        this.repositories = new ConcurrentHashMap<>();
+        this.images = new ConcurrentHashMap<>();
+    }
+
+    public EcrClient getEcrClient() {
+        return ecrClient.get();
+    }
+
+    /**
+     * Adds ECR authorization data to Docker unless it has been already added and the token is still valid.
+     */
+    public void login() {
+        dockerSession.login(() -> {
+            if (authorizationData != null && isValid(authorizationData)) {
+                return;
+            }
+
+            AuthorizationData authorizationData = getEcrClient().getAuthorizationToken().authorizationData().stream()
+                    .findFirst()
+                    .orElseThrow(() -> new CdkPluginException("Unable to retrieve authorization token from ECR"));
+            try {
+                processRunner.run(toDockerLoginCommand(authorizationData));
+            } catch (ProcessExecutionException e) {
+                throw new CdkPluginException("Unable to add ECR authorization data");
+            }
+            this.authorizationData = authorizationData;
+        });
+    }
+
+    /**
+     * Returns the repository with the given name, creating it if it doesn't exist.
+     */
+    public Repository getRepository(String name) {
+        Repository repository = repositories.get(name);
+        if (repository == null) {
+            repository = findRepository(name).orElseGet(() -> createRepository(name));
+            repositories.putIfAbsent(name, repository);
+        }
+
+        return repository;
+    }
+
+    /**
+     * Checks which of the images with the given tags exist in the repository, requesting them in batches. The results
+     * are remembered and used by {@link #isPublished(String, String)}.
+     *
+     * @return the tags of the existing images
+     */
+    public Set<String> checkImages(String repositoryName, Collection<String> tags) {
+        List<String> uncheckedTags = tags.stream()
+                .distinct()
+                .filter(tag -> !images.containsKey(ImmutableList.of(repositoryName, tag)))
+                .collect(Collectors.toList());
+        for (List<String> batch : Lists.partition(uncheckedTags, MAX_BATCH_SIZE)) {
+            BatchGetImageRequest request = BatchGetImageRequest.builder()
+                    .repositoryName(repositoryName)
+                    .imageIds(batch.stream()
+                            .map(tag -> ImageIdentifier.builder().imageTag(tag).build())
+                            .collect(Collectors.toList()))
+                    .build();
+            BatchGetImageResponse response;
+            try {
+                response = getEcrClient().batchGetImage(request);
+            } catch (RepositoryNotFoundException e) {
+                batch.forEach(tag -> images.put(ImmutableList.of(repositoryName, tag), false));
+                continue;
+            }
+
+            response.images().stream()
+                    .map(image -> image.imageId().imageTag())
+                    .filter(Objects::nonNull)
+                    .forEach(tag -> images.put(ImmutableList.of(repositoryName, tag), true));
+            // the images that cannot be retrieved for other reasons are checked again when they're published
+            response.failures().stream()
+                    .filter(failure -> failure.failureCode() == ImageFailureCode.IMAGE_NOT_FOUND)
+                    .map(failure -> failure.imageId().imageTag())
+                    .filter(Objects::nonNull)
+                    .forEach(tag -> images.putIfAbsent(ImmutableList.of(repositoryName, tag), false));
+        }
+
+        return tags.stream()
+                .filter(tag -> images.getOrDefault(ImmutableList.of(repositoryName, tag), false))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Checks whether the image with the given tag exists in the repository. The result of the previous check is used
+     * if the image has been already checked.
+     */
+    public boolean isPublished(String repositoryName, String tag) {
+        Boolean published = images.get(ImmutableList.of(repositoryName, tag));
+        if (published == null) {
+            published = findImage(repositoryName, tag).isPresent();
+            images.put(ImmutableList.of(repositoryName, tag), published);
+        }
+
+        return published;
+    }
+
+    /**
+     * Records that the image with the given tag has been pushed to the repository.
+     */
+    public void setPublished(String repositoryName, String tag) {
+        images.put(ImmutableList.of(repositoryName, tag), true);
+    }
+
+    private Optional<ImageDetail> findImage(String repositoryName, String imageTag) {
+        DescribeImagesRequest describeRequest = DescribeImagesRequest.builder()
+                .repositoryName(repositoryName)
+                .imageIds(ImageIdentifier.builder()
+                        .imageTag(imageTag)
+                        .build())
+                .build();
+        try {
+            DescribeImagesResponse response = getEcrClient().describeImages(describeRequest);
+            return response.imageDetails().stream().findFirst();
+        } catch (ImageNotFoundException|RepositoryNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isValid(AuthorizationData authorizationData) {
+        Instant expiresAt = authorizationData.expiresAt();
+        return expiresAt == null || clock.instant().isBefore(expiresAt.minus(TOKEN_REFRESH_MARGIN));
+    }
+
+    private List<String> toDockerLoginCommand(AuthorizationData authorizationData) {
+        String[] userPassword = new String(Base64.getDecoder().decode(authorizationData.authorizationToken())).split(":");
+        return ImmutableList.of("docker", "login",
+                "--username", userPassword[0],
+                "--password", userPassword[1],
+                authorizationData.proxyEndpoint()
+        );
+    }
+
+    private Optional<Repository> findRepository(String name) {
+        DescribeRepositoriesRequest describeRequest = DescribeRepositoriesRequest.builder()
+                .repositoryNames(name)
+                .build();
+        try {
+            DescribeRepositoriesResponse response = getEcrClient().describeRepositories(describeRequest);
+            return response.repositories().stream()
+                    .findFirst();
+        } catch (RepositoryNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Repository createRepository(String name) {
+        CreateRepositoryRequest createRequest = CreateRepositoryRequest.builder()
+                .repositoryName(name)
+                .build();
+        try {
+            CreateRepositoryResponse response = getEcrClient().createRepository(createRequest);
+            return response.repository();
+        } catch (RepositoryAlreadyExistsException e) {
+            // The repository has been created concurrently while publishing another image
+            return findRepository(name)
+                    .orElseThrow(() -> new CdkPluginException("Unable to find the ECR repository " + name));
+        }
+    }
+
+}
@@ -1,33 +1,44 @@
 package io.linguarobot.aws.cdk.maven;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
 import software.amazon.awssdk.services.s3.model.CompletedPart;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
 import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.file.FileVisitResult;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /**
  * Publishes file assets to S3.
@@ -36,16 +47,73 @@ public class FileAssetPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(FileAssetPublisher.class);
 
+    private static final int COMPRESSION_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService COMPRESSION_EXECUTOR = Executors.newFixedThreadPool(COMPRESSION_PARALLELISM,
+            new ThreadFactoryBuilder().setNameFormat("cdk-zip-%d").setDaemon(true).build());
+
+    private static final String ZIP_CONTENT_TYPE = "application/zip";
+
     private final ResolvedEnvironment environment;
+    private final Path archiveCacheDirectory;
+    private final int maxInFlightParts;
+    private final boolean directBuffers;
 
     private S3AsyncClient s3Client;
 
     public FileAssetPublisher(ResolvedEnvironment environment) {
+        this(environment, null);
+    }
+
+    /**
+     * @param environment the environment the assets are published to
+     * @param archiveCacheDirectory the directory where the archives of the directory assets are cached or
+     *                              {@code null} if the archives must not be cached
+     */
+    public FileAssetPublisher(ResolvedEnvironment environment, @Nullable Path archiveCacheDirectory) {
+        this(environment, archiveCacheDirectory, S3ObjectOutputStream.DEFAULT_MAX_IN_FLIGHT_PARTS, false);
+    }
+
+    /**
+     * @param environment the environment the assets are published to
+     * @param archiveCacheDirectory the directory where the archives of the directory assets are cached or
+     *                              {@code null} if the archives must not be cached
+     * @param maxInFlightParts the maximum number of parts of a file or a zipped directory that are uploaded at the
+     *                         same time
+     * @param directBuffers whether the parts of the zipped directories are buffered in direct (off-heap) buffers
+     */
+    public FileAssetPublisher(ResolvedEnvironment environment,
+                              @Nullable Path archiveCacheDirectory,
+                              int maxInFlightParts,
+                              boolean directBuffers) {
+        this(environment, null, archiveCacheDirectory, maxInFlightParts, directBuffers);
+    }
+
+    FileAssetPublisher(S3AsyncClient s3Client,
+                       @Nullable Path archiveCacheDirectory,
+                       int maxInFlightParts,
+                       boolean directBuffers) {
+        this(null, s3Client, archiveCacheDirectory, maxInFlightParts, directBuffers);
+    }
+
+    private FileAssetPublisher(ResolvedEnvironment environment,
+                               S3AsyncClient s3Client,
+                               @Nullable Path archiveCacheDirectory,
+                               int maxInFlightParts,
+                               boolean directBuffers) {
+        if (maxInFlightParts < 1) {
+            throw new IllegalArgumentException("The maximum number of in-flight parts must be greater than zero");
+        }
         this.environment = environment;
+        this.s3Client = s3Client;
+        this.archiveCacheDirectory = archiveCacheDirectory;
+        this.maxInFlightParts = maxInFlightParts;
+        this.directBuffers = directBuffers;
     }
 
     /**
-     * Uploads a file or a directory (zipping it before uploading) to S3 bucket.
+     * Uploads a file or a directory (zipping it before uploading) to S3 bucket. The object names are expected to be
+     * derived from the content of the files (for example, from the asset source hash), so the publishing is skipped if
+     * the object already exists in the bucket.
      *
      * @param file the file or directory to be uploaded
      * @param objectName the name of the object in the bucket
@@ -53,45 +121,234 @@ public class FileAssetPublisher {
      * @throws IOException if I/O error occurs while uploading a file or directory
      */
     public void publish(Path file, String objectName, String bucketName) throws IOException {
+        publish(file, objectName, bucketName, null);
+    }
+
+    /**
+     * Uploads a file or a directory (zipping it before uploading) to S3 bucket. The archives of the directories are
+     * cached by the source hash, so that the same directory is not zipped again if it's published to another
+     * environment or the deployment is retried.
+     *
+     * @param file the file or directory to be uploaded
+     * @param objectName the name of the object in the bucket
+     * @param bucketName the name of the bucket
+     * @param sourceHash the hash of the file or directory content or {@code null} if it's unknown
+     * @throws IOException if I/O error occurs while uploading a file or directory
+     */
+    public void publish(Path file, String objectName, String bucketName, @Nullable String sourceHash) throws IOException {
+        if (exists(objectName, bucketName)) {
+            logger.info("The file asset has been already published, file={}, bucketName={}, objectName={}",
+                    file, bucketName, objectName);
+            return;
+        }
+
         logger.info("Publishing file asset, file={}, bucketName={}, objectName={}", file, bucketName, objectName);
         if (Files.isDirectory(file)) {
-            publishDirectory(file, objectName, bucketName);
+            Path cachedArchive = archiveCacheDirectory != null && sourceHash != null
+                    ? archiveCacheDirectory.resolve(sourceHash + ".zip")
+                    : null;
+            if (cachedArchive != null && Files.isRegularFile(cachedArchive)) {
+                logger.debug("Using the cached archive {} of the directory {}", cachedArchive, file);
+                publishFile(cachedArchive, objectName, bucketName, ZIP_CONTENT_TYPE);
+            } else {
+                publishDirectory(file, objectName, bucketName, cachedArchive);
+            }
         } else {
-            publishFile(file, objectName, bucketName);
+            publishFile(file, objectName, bucketName, null);
         }
     }
 
     /**
-     * Zips the directory and uploads it to S3 bucket.
+     * Zips the directory and uploads it to S3 bucket. The entries are compressed in parallel while the archive is
+     * being uploaded. If the {@code cachedArchive} is specified, the archive is also written to this file.
      */
-    private void publishDirectory(Path directory, String objectName, String bucketName) throws IOException {
-        try (
-                OutputStream outputStream = new S3ObjectOutputStream(getS3Client(), bucketName, objectName, "application/zip");
-                ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)
-        ) {
-            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                    ZipEntry zipEntry = new ZipEntry(directory.relativize(file).toString());
-                    zipOutputStream.putNextEntry(zipEntry);
-                    Files.copy(file, zipOutputStream);
-                    zipOutputStream.closeEntry();
-                    return FileVisitResult.CONTINUE;
+    private void publishDirectory(Path directory,
+                                  String objectName,
+                                  String bucketName,
+                                  @Nullable Path cachedArchive) throws IOException {
+        ParallelZipArchiver archiver = new ParallelZipArchiver(COMPRESSION_EXECUTOR, COMPRESSION_PARALLELISM);
+        S3ObjectOutputStream outputStream = new S3ObjectOutputStream(getS3Client(), bucketName, objectName,
+                ZIP_CONTENT_TYPE, S3ObjectOutputStream.MINIMUM_PART_SIZE, maxInFlightParts, directBuffers);
+        try {
+            if (cachedArchive != null) {
+                archive(archiver, directory, outputStream, cachedArchive);
+            } else {
+                archiver.archive(directory, outputStream);
+            }
+        } catch (IOException | RuntimeException e) {
+            outputStream.abort();
+            throw e;
+        }
+        outputStream.close();
+    }
+
+    /**
+     * Zips the directory writing the archive both to the output stream and the cached archive file. The cached archive
+     * is replaced atomically, so it's either complete or doesn't exist.
+     */
+    private void archive(ParallelZipArchiver archiver,
+                         Path directory,
+                         OutputStream outputStream,
+                         Path cachedArchive) throws IOException {
+        Files.createDirectories(cachedArchive.getParent());
+        Path temporaryArchive = Files.createTempFile(cachedArchive.getParent(), cachedArchive.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream archiveOutputStream = new BufferedOutputStream(Files.newOutputStream(temporaryArchive))) {
+                archiver.archive(directory, new TeeOutputStream(outputStream, archiveOutputStream));
+            }
+            Files.move(temporaryArchive, cachedArchive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryArchive);
+        }
+    }
+
+    /**
+     * Uploads the file to S3 bucket. The content of the file is memory-mapped and sent straight from the mapped
+     * regions, so the file is never copied to the heap. The files larger than a single part are uploaded using
+     * multipart upload with the parts uploaded concurrently.
+     */
+    private void publishFile(Path file, String objectName, String bucketName, @Nullable String contentType) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int partSize = S3ObjectOutputStream.partSize(size);
+            if (size <= partSize) {
+                PutObjectRequest request = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectName)
+                        .contentType(contentType)
+                        .contentLength(size)
+                        .build();
+                try {
+                    getS3Client().putObject(request, new ByteBufferAsyncRequestBody(map(channel, 0, size))).join();
+                } catch (CompletionException e) {
+                    throw new IOException("Unable to upload the file " + file, e.getCause());
                 }
-            });
+            } else {
+                publishFileParts(channel, size, partSize, objectName, bucketName, contentType);
+            }
+        }
+    }
+
+    private void publishFileParts(FileChannel channel,
+                                  long size,
+                                  int partSize,
+                                  String objectName,
+                                  String bucketName,
+                                  @Nullable String contentType) throws IOException {
+        S3AsyncClient s3Client = getS3Client();
+        CreateMultipartUploadRequest uploadRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(objectName)
+                .contentType(contentType)
+                .build();
+        String uploadId = null;
+        Semaphore inFlightParts = new Semaphore(maxInFlightParts);
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            uploadId = s3Client.createMultipartUpload(uploadRequest).join().uploadId();
+            for (long offset = 0; offset < size; offset += partSize) {
+                inFlightParts.acquire();
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                int partNumber = parts.size() + 1;
+                UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectName)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .build();
+                ByteBuffer region = map(channel, offset, Math.min(partSize, size - offset));
+                CompletableFuture<CompletedPart> part = s3Client.uploadPart(uploadPartRequest, new ByteBufferAsyncRequestBody(region))
+                        .thenApply(r -> CompletedPart.builder()
+                                .eTag(r.eTag())
+                                .partNumber(partNumber)
+                                .build());
+                part.whenComplete((r, e) -> inFlightParts.release());
+                parts.add(part);
+            }
+
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).join();
+            CompleteMultipartUploadRequest completeUploadRequest = CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectName)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder()
+                            .parts(parts.stream().map(CompletableFuture::join).collect(Collectors.toList()))
+                            .build())
+                    .build();
+            s3Client.completeMultipartUpload(completeUploadRequest).join();
+        } catch (InterruptedException | IOException | RuntimeException e) {
+            // the upload is aborted on any failure, otherwise the uploaded parts would be kept (and billed) by S3
+            if (uploadId != null) {
+                abortMultipartUpload(s3Client, bucketName, objectName, uploadId, parts);
+            }
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while uploading the object " + objectName);
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new IOException("Unable to upload the object " + objectName, cause);
         }
     }
 
     /**
-     * Uploads the file to S3 bucket.
+     * Aborts the multipart upload once all the started parts are completed, so that none of the parts is left in the
+     * bucket. The failure to abort the upload is logged, so that it doesn't hide the failure of the upload.
      */
-    private void publishFile(Path file, String objectName, String bucketName) throws IOException {
-        try (OutputStream outputStream = new S3ObjectOutputStream(getS3Client(), bucketName, objectName)) {
-            Files.copy(file, outputStream);
+    private void abortMultipartUpload(S3AsyncClient s3Client,
+                                      String bucketName,
+                                      String objectName,
+                                      String uploadId,
+                                      List<CompletableFuture<CompletedPart>> parts) {
+        AbortMultipartUploadRequest abortRequest = AbortMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(objectName)
+                .uploadId(uploadId)
+                .build();
+        try {
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                    .handle((r, e) -> null)
+                    .thenCompose(r -> s3Client.abortMultipartUpload(abortRequest))
+                    .join();
+        } catch (RuntimeException e) {
+            logger.warn("Unable to abort the multipart upload {} of the object {}", uploadId, objectName, e);
         }
     }
 
-    private S3AsyncClient getS3Client() {
+    private ByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+        if (size == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    }
+
+    private boolean exists(String objectName, String bucketName) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectName)
+                .build();
+        try {
+            getS3Client().headObject(request).join();
+            return true;
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (!(cause instanceof S3Exception)) {
+                // the object is uploaded again, which fails as well if the bucket is unreachable
+                logger.warn("Unable to check whether the object {} exists in the bucket {}, the object will be uploaded",
+                        objectName, bucketName, cause);
+            } else if (((S3Exception) cause).statusCode() != 404) {
+                // Without s3:ListBucket permission S3 responds with 403 for missing objects
+                logger.debug("Unable to check whether the object {} exists in the bucket {}", objectName, bucketName, cause);
+            }
+            return false;
+        }
+    }
+
+    private synchronized S3AsyncClient getS3Client() {
         if (this.s3Client == null) {
             this.s3Client = S3AsyncClient.builder()
                     .region(environment.getRegion())
@@ -102,95 +359,277 @@ public class FileAssetPublisher {
         return s3Client;
     }
 
-    private static class S3ObjectOutputStream extends OutputStream {
+    /**
+     * Writes the data to both output streams. The streams are not closed.
+     */
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream first;
+        private final OutputStream second;
 
-        private static final int MINIMUM_PART_SIZE = 5 * 1024 * 1024;
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            first.write(bytes, offset, length);
+            second.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+    }
+
+    /**
+     * An output stream uploading the data to S3. The data is buffered in part-sized buffers taken from a fixed pool:
+     * a part is uploaded as soon as its buffer is full, and the buffer is returned to the pool once the upload of the
+     * part is completed. If all the buffers are in flight, the writes block until one of the parts is uploaded, so the
+     * memory used by the stream never exceeds the number of in-flight parts multiplied by the part size. The buffers can
+     * be allocated outside of the heap (direct buffers), which keeps large uploads from growing the heap.
+     *
+     * The multipart upload is created only when the first buffer is full. If the whole object fits into a single part,
+     * it's uploaded with a single PutObject request when the stream is closed.
+     */
+    static class S3ObjectOutputStream extends OutputStream {
+
+        static final int MINIMUM_PART_SIZE = 5 * 1024 * 1024;
+        static final int DEFAULT_MAX_IN_FLIGHT_PARTS = 4;
+        private static final int MAX_PARTS = 10_000;
+        private static final int PART_SIZE_ALIGNMENT = 1024 * 1024;
+
+        private final String bucketName;
+        private final String objectKey;
+        private final String contentType;
+        private final int partSize;
+        private final int maxInFlightParts;
+        private final boolean directBuffers;
+        private final BlockingQueue<ByteBuffer> buffers;
+        private final AtomicReference<Throwable> failure;
 
         private S3AsyncClient s3Client;
         private CreateMultipartUploadResponse createUploadResponse;
         private List<CompletableFuture<CompletedPart>> parts;
         private ByteBuffer buffer;
+        private int allocatedBuffers;
+        private boolean closed;
 
         S3ObjectOutputStream(S3AsyncClient s3Client, String bucketName, String objectKey) {
             this(s3Client, bucketName, objectKey, null);
         }
 
         S3ObjectOutputStream(S3AsyncClient s3Client, String bucketName, String objectKey, @Nullable String contentType) {
-            this(s3Client, bucketName, objectKey, contentType, MINIMUM_PART_SIZE);
+            this(s3Client, bucketName, objectKey, contentType, MINIMUM_PART_SIZE, DEFAULT_MAX_IN_FLIGHT_PARTS, false);
         }
 
-        S3ObjectOutputStream(S3AsyncClient s3Client, String bucketName, String objectKey, String contentType, int partSize) {
-            if (partSize <= 0) {
+        S3ObjectOutputStream(S3AsyncClient s3Client,
+                             String bucketName,
+                             String objectKey,
+                             @Nullable String contentType,
+                             int partSize,
+                             int maxInFlightParts,
+                             boolean directBuffers) {
+            if (partSize < MINIMUM_PART_SIZE) {
                 throw new IllegalArgumentException("The minimum part size is 5 MB (" + MINIMUM_PART_SIZE + " bytes)");
             }
+            if (maxInFlightParts < 1) {
+                throw new IllegalArgumentException("The maximum number of in-flight parts must be greater than zero");
+            }
             this.s3Client = s3Client;
-            this.buffer = ByteBuffer.allocate(partSize);
+            this.bucketName = bucketName;
+            this.objectKey = objectKey;
+            this.contentType = contentType;
+            this.partSize = partSize;
+            this.maxInFlightParts = maxInFlightParts;
+            this.directBuffers = directBuffers;
+            this.buffers = new ArrayBlockingQueue<>(maxInFlightParts);
+            this.failure = new AtomicReference<>();
             this.parts = new ArrayList<>();
-            CreateMultipartUploadRequest uploadRequest = buildUploadRequest(bucketName, objectKey, contentType);
-            this.createUploadResponse = s3Client.createMultipartUpload(uploadRequest).join();
+        }
+
+        /**
+         * Returns the part size for an object of the given size: the minimum part size unless the object wouldn't fit
+         * into the maximum number of parts, in which case the part size is increased (aligned to megabytes).
+         */
+        static int partSize(long objectSize) {
+            long partSize = (objectSize + MAX_PARTS - 1) / MAX_PARTS;
+            partSize = (partSize + PART_SIZE_ALIGNMENT - 1) / PART_SIZE_ALIGNMENT * PART_SIZE_ALIGNMENT;
+            return (int) Math.max(MINIMUM_PART_SIZE, partSize);
         }
 
         @Override
         public void write(int b) throws IOException {
-            if (isClosed()) {
-                throw new IOException("The stream is closed");
-            }
-
-            if (!buffer.hasRemaining()) {
-                flush();
-            }
-
+            ensureWritable();
             buffer.put((byte) b);
         }
 
         @Override
         public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
-            if (isClosed()) {
-                throw new IOException("The stream is closed");
-            }
-            int remaining = buffer.remaining();
-            buffer.put(bytes, offset, Math.min(remaining, length));
-            if (remaining < length) {
-                flush();
-                write(bytes, offset + remaining, length - remaining);
+            while (length > 0) {
+                ensureWritable();
+                int chunkSize = Math.min(buffer.remaining(), length);
+                buffer.put(bytes, offset, chunkSize);
+                offset += chunkSize;
+                length -= chunkSize;
             }
         }
 
+        /**
+         * Does nothing as all the parts except the last one must be at least 5 MB. A part is uploaded as soon as the
+         * buffer is full, the last part is uploaded when the stream is closed.
+         */
         @Override
         public void flush() {
-            if (!isClosed()) {
-                buffer.flip();
-                if (buffer.remaining() > 0) {
-                    CompletableFuture<CompletedPart> part = CompletableFuture.completedFuture(parts.size() + 1)
-                            .thenApply(this::buildUploadPartRequest)
-                            .thenCompose(uploadPartRequest -> {
-                                AsyncRequestBody requestBody = AsyncRequestBody.fromByteBuffer(buffer);
-                                return s3Client.uploadPart(uploadPartRequest, requestBody)
-                                        .thenApply(r -> completedPart(r.eTag(), uploadPartRequest.partNumber()));
-                            });
-                    parts.add(part);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                if (createUploadResponse == null) {
+                    putObject();
+                    return;
+                }
+                if (buffer != null && buffer.position() > 0) {
+                    uploadPart();
                 }
-                buffer.clear();
+                try {
+                    join(this.parts)
+                            .thenCompose(completedParts -> {
+                                CompleteMultipartUploadRequest completeUploadRequest = buildCompleteUploadRequest(completedParts);
+                                return s3Client.completeMultipartUpload(completeUploadRequest);
+                            })
+                            .join();
+                } catch (CompletionException e) {
+                    abort();
+                    throw new IOException("Unable to upload the object " + objectKey, e.getCause());
+                }
+                release();
             }
         }
 
-        @Override
-        public void close() {
-            if (!isClosed()) {
-                flush();
-                join(this.parts)
-                        .thenCompose(completedParts -> {
-                            CompleteMultipartUploadRequest completeUploadRequest = buildCompleteUploadRequest(completedParts);
-                            return s3Client.completeMultipartUpload(completeUploadRequest);
-                        })
-                        .join();
+        private void putObject() throws IOException {
+            ByteBuffer content = buffer != null ? buffer : ByteBuffer.allocate(0);
+            content.flip();
+            PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .contentLength((long) content.remaining());
+            if (contentType != null) {
+                requestBuilder = requestBuilder.contentType(contentType);
+            }
+            try {
+                s3Client.putObject(requestBuilder.build(), new ByteBufferAsyncRequestBody(content)).join();
+            } catch (CompletionException e) {
+                throw new IOException("Unable to upload the object " + objectKey, e.getCause());
+            } finally {
+                release();
+            }
+        }
 
-                s3Client = null;
-                this.createUploadResponse = null;
-                buffer = null;
-                this.parts = null;
+        /**
+         * Aborts the multipart upload, so that the object is not created. The failure to abort the upload is logged, so
+         * that it doesn't hide the failure that has caused the abort.
+         */
+        public void abort() {
+            if (closed) {
+                return;
             }
+            try {
+                if (createUploadResponse != null) {
+                    CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                            .handle((r, e) -> null)
+                            .thenCompose(r -> s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                                    .bucket(createUploadResponse.bucket())
+                                    .key(createUploadResponse.key())
+                                    .uploadId(createUploadResponse.uploadId())
+                                    .build()))
+                            .join();
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Unable to abort the multipart upload {} of the object {}", createUploadResponse.uploadId(), objectKey, e);
+            } finally {
+                release();
+            }
+        }
 
+        private void release() {
+            closed = true;
+            s3Client = null;
+            buffer = null;
+            buffers.clear();
+            parts = null;
+        }
+
+        /**
+         * Makes sure that there is a buffer with some space remaining, uploading the current buffer if it's full.
+         */
+        private void ensureWritable() throws IOException {
+            if (closed) {
+                throw new IOException("The stream is closed");
+            }
+            if (buffer != null && !buffer.hasRemaining()) {
+                uploadPart();
+            }
+            if (buffer == null) {
+                buffer = nextBuffer();
+            }
+        }
+
+        /**
+         * Returns a buffer from the pool, allocating a new one if the pool is empty and the maximum number of buffers
+         * hasn't been reached yet. Otherwise, blocks until one of the in-flight parts is uploaded.
+         */
+        private ByteBuffer nextBuffer() throws IOException {
+            ByteBuffer nextBuffer = buffers.poll();
+            if (nextBuffer == null && allocatedBuffers < maxInFlightParts) {
+                allocatedBuffers++;
+                nextBuffer = directBuffers ? ByteBuffer.allocateDirect(partSize) : ByteBuffer.allocate(partSize);
+            }
+            if (nextBuffer == null) {
+                try {
+                    nextBuffer = buffers.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a part to be uploaded");
+                }
+            }
+            if (failure.get() != null) {
+                throw new IOException("Unable to upload the object " + objectKey, failure.get());
+            }
+
+            return nextBuffer;
+        }
+
+        private void uploadPart() {
+            if (createUploadResponse == null) {
+                CreateMultipartUploadRequest uploadRequest = buildUploadRequest(bucketName, objectKey, contentType);
+                createUploadResponse = s3Client.createMultipartUpload(uploadRequest).join();
+            }
+            ByteBuffer partBuffer = buffer;
+            buffer = null;
+            partBuffer.flip();
+            UploadPartRequest uploadPartRequest = buildUploadPartRequest(parts.size() + 1);
+            CompletableFuture<CompletedPart> part = s3Client.uploadPart(uploadPartRequest, new ByteBufferAsyncRequestBody(partBuffer))
+                    .thenApply(r -> completedPart(r.eTag(), uploadPartRequest.partNumber()));
+            part.whenComplete((r, e) -> {
+                if (e != null) {
+                    failure.compareAndSet(null, e);
+                }
+                partBuffer.clear();
+                buffers.offer(partBuffer);
+            });
+            parts.add(part);
         }
 
         private <T> CompletableFuture<List<T>> join(List<CompletableFuture<T>> futures) {
@@ -200,10 +639,6 @@ public class FileAssetPublisher {
                             .collect(Collectors.toList()));
         }
 
-        private boolean isClosed() {
-            return buffer == null;
-        }
-
         private CreateMultipartUploadRequest buildUploadRequest(String bucketName,
                                                                 String objectKey,
                                                                 @Nullable String contentType) {
@@ -29,16 +29,21 @@ public class ImageBuild {
     @Nonnull
     Map<String, String> arguments;
 
+    @Nullable
+    private final String cacheTag;
+
     private ImageBuild(@NotNull Path contextDirectory,
                        @NotNull Path dockerfile,
                        @NotNull String imageTag,
                        @Nullable String target,
-                       @Nullable Map<String, String> arguments) {
+                       @Nullable Map<String, String> arguments,
+                       @Nullable String cacheTag) {
         this.contextDirectory = Objects.requireNonNull(contextDirectory, "Docker context directory path can't be null");
         this.dockerfile = Objects.requireNonNull(dockerfile, "Docker Dockerfile path can't be null");
         this.imageTag = Objects.requireNonNull(imageTag, "Image tag can't be null");
         this.target = target;
         this.arguments = arguments != null ? ImmutableMap.copyOf(arguments) : ImmutableMap.of();
+        this.cacheTag = cacheTag;
     }
 
     @Nonnull
@@ -66,6 +71,15 @@ public class ImageBuild {
         return arguments;
     }
 
+    /**
+     * Returns the tag of the image in the asset repository that holds the layer cache of the build, or {@code null}
+     * if the build has no stable identity to share the cache under.
+     */
+    @Nullable
+    public String getCacheTag() {
+        return cacheTag;
+    }
+
     @Override
     public String toString() {
         return "ImageBuild{" +
@@ -74,6 +88,7 @@ public class ImageBuild {
                 ", imageTag='" + imageTag + '\'' +
                 ", target='" + target + '\'' +
                 ", arguments=" + arguments +
+                ", cacheTag='" + cacheTag + '\'' +
                 '}';
     }
 
@@ -88,6 +103,7 @@ public class ImageBuild {
         private Path dockerfile;
         private String imageTag;
         private String target;
+        private String cacheTag;
 
         private Builder() {
         }
@@ -117,8 +133,13 @@ public class ImageBuild {
             return this;
         }
 
+        public Builder withCacheTag(@Nullable String cacheTag) {
+            this.cacheTag = cacheTag;
+            return this;
+        }
+
         public ImageBuild build() {
-            return new ImageBuild(contextDirectory, dockerfile, imageTag, target, arguments);
+            return new ImageBuild(contextDirectory, dockerfile, imageTag, target, arguments, cacheTag);
         }
     }
 }
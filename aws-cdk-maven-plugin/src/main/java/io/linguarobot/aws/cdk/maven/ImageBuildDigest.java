@@ -0,0 +1,273 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Computes the digest of the Docker image build: the files of the build context that are sent to the Docker daemon
+ * (i.e. the files that are not excluded by the {@code .dockerignore} file), the Dockerfile, the build arguments and
+ * the target. Two builds with the same digest produce equivalent images.
+ */
+public final class ImageBuildDigest {
+
+    private static final String DOCKER_IGNORE_FILE_NAME = ".dockerignore";
+
+    private ImageBuildDigest() {
+    }
+
+    /**
+     * Computes the digest of the given image build.
+     *
+     * @throws IOException if an I/O error occurs while reading the build context
+     */
+    public static String compute(ImageBuild imageBuild) throws IOException {
+        Path contextDirectory = imageBuild.getContextDirectory();
+        Hasher hasher = Hashing.sha256().newHasher();
+
+        putString(hasher.putByte((byte) 'f'), toEntryName(contextDirectory, imageBuild.getDockerfile()));
+        putFile(hasher, imageBuild.getDockerfile());
+        if (imageBuild.getTarget() != null) {
+            putString(hasher.putByte((byte) 't'), imageBuild.getTarget());
+        }
+        new TreeMap<>(imageBuild.getArguments()).forEach((name, value) ->
+                putString(putString(hasher.putByte((byte) 'a'), name), value));
+
+        for (Map.Entry<String, Path> entry : listContextFiles(contextDirectory).entrySet()) {
+            Path file = entry.getValue();
+            putString(hasher, entry.getKey());
+            if (Files.isSymbolicLink(file)) {
+                putString(hasher.putByte((byte) 'l'), Files.readSymbolicLink(file).toString());
+            } else if (Files.isDirectory(file)) {
+                hasher.putByte((byte) 'd');
+            } else {
+                hasher.putByte((byte) (Files.isExecutable(file) ? 'x' : 'r'));
+                putFile(hasher, file);
+            }
+        }
+
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Returns the files and directories of the build context that are not excluded by the {@code .dockerignore} file,
+     * sorted by their path relative to the context directory.
+     */
+    private static Map<String, Path> listContextFiles(Path contextDirectory) throws IOException {
+        List<IgnorePattern> ignorePatterns = readIgnorePatterns(contextDirectory.resolve(DOCKER_IGNORE_FILE_NAME));
+        // the excluded directories can be skipped only if none of their files can be included back
+        boolean exceptions = ignorePatterns.stream().anyMatch(IgnorePattern::isException);
+
+        Map<String, Path> files = new TreeMap<>();
+        Files.walkFileTree(contextDirectory, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                if (directory.equals(contextDirectory)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                String entryName = toEntryName(contextDirectory, directory);
+                if (!isExcluded(ignorePatterns, entryName)) {
+                    files.put(entryName, directory);
+                } else if (!exceptions) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String entryName = toEntryName(contextDirectory, file);
+                if (!isExcluded(ignorePatterns, entryName)) {
+                    files.put(entryName, file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+
+        return files;
+    }
+
+    private static boolean isExcluded(List<IgnorePattern> ignorePatterns, String entryName) {
+        boolean excluded = false;
+        for (IgnorePattern ignorePattern : ignorePatterns) {
+            if (ignorePattern.matches(entryName)) {
+                excluded = !ignorePattern.isException();
+            }
+        }
+
+        return excluded;
+    }
+
+    private static List<IgnorePattern> readIgnorePatterns(Path dockerIgnoreFile) throws IOException {
+        if (!Files.isRegularFile(dockerIgnoreFile)) {
+            return Collections.emptyList();
+        }
+
+        return Files.readAllLines(dockerIgnoreFile, StandardCharsets.UTF_8).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(IgnorePattern::parse)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static String toEntryName(Path contextDirectory, Path file) {
+        return StreamSupport.stream(contextDirectory.relativize(file).spliterator(), false)
+                .map(Path::toString)
+                .collect(Collectors.joining("/"));
+    }
+
+    private static Hasher putString(Hasher hasher, String value) {
+        return hasher.putString(value, StandardCharsets.UTF_8).putByte((byte) 0);
+    }
+
+    private static void putFile(Hasher hasher, Path file) throws IOException {
+        hasher.putLong(Files.size(file));
+        try (InputStream inputStream = Files.newInputStream(file);
+             OutputStream outputStream = Funnels.asOutputStream(hasher)) {
+            ByteStreams.copy(inputStream, outputStream);
+        }
+    }
+
+    /**
+     * A {@code .dockerignore} pattern. The patterns follow the Go {@code filepath.Match} rules extended with the
+     * {@code **} wildcard, which matches any number of directories. A pattern that matches a directory excludes all
+     * of its content, and a pattern starting with {@code !} makes an exception to the preceding patterns.
+     */
+    private static final class IgnorePattern {
+
+        private final Pattern pattern;
+        private final boolean exception;
+
+        private IgnorePattern(Pattern pattern, boolean exception) {
+            this.pattern = pattern;
+            this.exception = exception;
+        }
+
+        public boolean isException() {
+            return exception;
+        }
+
+        /**
+         * Checks whether the pattern matches the entry or one of its parent directories.
+         */
+        public boolean matches(String entryName) {
+            if (pattern.matcher(entryName).matches()) {
+                return true;
+            }
+
+            for (int i = entryName.indexOf('/'); i != -1; i = entryName.indexOf('/', i + 1)) {
+                if (pattern.matcher(entryName.substring(0, i)).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public static IgnorePattern parse(String line) {
+            boolean exception = line.startsWith("!");
+            String path = clean(exception ? line.substring(1).trim() : line);
+            if (path.isEmpty()) {
+                return null;
+            }
+
+            return new IgnorePattern(Pattern.compile(toRegex(path)), exception);
+        }
+
+        /**
+         * Normalizes the pattern the same way as Docker does: the leading slashes and the {@code .} elements are
+         * removed and the {@code ..} elements are resolved.
+         */
+        private static String clean(String path) {
+            List<String> elements = new ArrayList<>();
+            for (String element : path.split("/")) {
+                if (element.isEmpty() || element.equals(".")) {
+                    continue;
+                }
+                if (element.equals("..")) {
+                    if (!elements.isEmpty()) {
+                        elements.remove(elements.size() - 1);
+                    }
+                } else {
+                    elements.add(element);
+                }
+            }
+
+            return String.join("/", elements);
+        }
+
+        private static String toRegex(String path) {
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                switch (c) {
+                    case '*':
+                        if (i + 1 < path.length() && path.charAt(i + 1) == '*') {
+                            i++;
+                            if (i + 1 < path.length() && path.charAt(i + 1) == '/') {
+                                // "**/" matches any number of directories including none
+                                i++;
+                                regex.append("(.*/)?");
+                            } else {
+                                regex.append(".*");
+                            }
+                        } else {
+                            regex.append("[^/]*");
+                        }
+                        break;
+                    case '?':
+                        regex.append("[^/]");
+                        break;
+                    case '[':
+                        int end = path.indexOf(']', i + 1);
+                        if (end == -1) {
+                            regex.append("\\[");
+                            break;
+                        }
+                        String characters = path.substring(i + 1, end);
+                        if (characters.startsWith("^") || characters.startsWith("!")) {
+                            characters = "^" + characters.substring(1);
+                        }
+                        regex.append('[').append(characters.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                        i = end;
+                        break;
+                    case '\\':
+                        if (i + 1 < path.length()) {
+                            i++;
+                            regex.append(Pattern.quote(String.valueOf(path.charAt(i))));
+                        }
+                        break;
+                    default:
+                        regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+
+            return regex.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,172 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.linguarobot.aws.cdk.MissingContext;
+import io.linguarobot.aws.cdk.maven.context.ContextProvider;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resolves the missing context values concurrently. The number of values resolved at the same time is bounded both
+ * overall and per context provider, so that a single provider doesn't exceed the API rate limits.
+ */
+public class MissingContextResolver {
+
+    private final Map<String, ContextProvider> contextProviders;
+    private final int concurrency;
+    private final int providerConcurrency;
+
+    /**
+     * @param contextProviders the context providers by their keys
+     * @param concurrency the maximum number of values resolved at the same time
+     * @param providerConcurrency the maximum number of values resolved by a single provider at the same time
+     */
+    public MissingContextResolver(Map<String, ContextProvider> contextProviders, int concurrency, int providerConcurrency) {
+        if (concurrency < 1 || providerConcurrency < 1) {
+            throw new IllegalArgumentException("The context resolution concurrency must be greater than zero");
+        }
+        this.contextProviders = contextProviders;
+        this.concurrency = concurrency;
+        this.providerConcurrency = providerConcurrency;
+    }
+
+    /**
+     * Resolves the values for the given missing contexts.
+     *
+     * @return the resolved values by the context keys in the order of the missing contexts
+     * @throws CdkPluginException if some of the values cannot be resolved
+     */
+    public Map<String, JsonValue> resolve(List<MissingContext> missingContexts) {
+        for (MissingContext missingContext : missingContexts) {
+            if (!contextProviders.containsKey(missingContext.getProvider())) {
+                throw new CdkPluginException("Unable to find a context provider for '" + missingContext.getProvider() +
+                        "'. Please consider updating the version of the plugin");
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, missingContexts.size())),
+                new ThreadFactoryBuilder().setNameFormat("cdk-context-%d").setDaemon(true).build());
+        Map<String, Executor> providerExecutors = new HashMap<>();
+        Map<MissingContext, CompletableFuture<JsonValue>> resolutions = new LinkedHashMap<>();
+        try {
+            for (MissingContext missingContext : missingContexts) {
+                Executor providerExecutor = providerExecutors.computeIfAbsent(missingContext.getProvider(),
+                        provider -> new BoundedExecutor(executor, providerConcurrency));
+                resolutions.put(missingContext, CompletableFuture.supplyAsync(() -> resolve(missingContext), providerExecutor));
+            }
+
+            CompletableFuture.allOf(resolutions.values().toArray(new CompletableFuture[0]))
+                    .handle((r, e) -> null)
+                    .join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, JsonValue> values = new LinkedHashMap<>();
+        CdkPluginException failure = null;
+        for (Map.Entry<MissingContext, CompletableFuture<JsonValue>> resolution : resolutions.entrySet()) {
+            try {
+                values.put(resolution.getKey().getKey(), resolution.getValue().join());
+            } catch (CompletionException e) {
+                CdkPluginException exception = e.getCause() instanceof CdkPluginException
+                        ? (CdkPluginException) e.getCause()
+                        : new CdkPluginException(e.getMessage(), e.getCause());
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return values;
+    }
+
+    private JsonValue resolve(MissingContext missingContext) {
+        String provider = missingContext.getProvider();
+        String key = missingContext.getKey();
+        ContextProvider contextProvider = contextProviders.get(provider);
+        JsonObject properties = AbstractCdkMojo.OBJECT_MAPPER.convertValue(missingContext.getProperties(), JsonObject.class);
+        JsonValue contextValue;
+        try {
+            contextValue = contextProvider.getContextValue(properties);
+        } catch (Exception e) {
+            throw new CdkPluginException("An error occurred while resolving context value for the " +
+                    "key '" + key + "' using '" + provider + "' provider: " + e.getMessage());
+        }
+        if (contextValue == null) {
+            throw new CdkPluginException("Unable to resolve context value for the key '" + key +
+                    "' using '" + provider + "' provider");
+        }
+
+        return contextValue;
+    }
+
+    /**
+     * Runs at most the given number of tasks on the delegate executor at the same time, the rest of the tasks wait in
+     * the queue.
+     */
+    private static class BoundedExecutor implements Executor {
+
+        private final Executor delegate;
+        private final int concurrency;
+        private final Queue<Runnable> pending;
+
+        private int running;
+
+        private BoundedExecutor(Executor delegate, int concurrency) {
+            this.delegate = delegate;
+            this.concurrency = concurrency;
+            this.pending = new ArrayDeque<>();
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                if (running >= concurrency) {
+                    pending.add(task);
+                    return;
+                }
+                running++;
+            }
+            run(task);
+        }
+
+        private void run(Runnable task) {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    Runnable next;
+                    synchronized (this) {
+                        next = pending.poll();
+                        if (next == null) {
+                            running--;
+                        }
+                    }
+                    if (next != null) {
+                        run(next);
+                    }
+                }
+            });
+        }
+
+    }
+
+}
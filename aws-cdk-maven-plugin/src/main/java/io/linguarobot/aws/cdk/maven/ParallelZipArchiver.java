@@ -0,0 +1,221 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.collect.Streams;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Calendar;
+import java.util.Deque;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Zips directories compressing the entries in parallel. The entries are deflated on the given executor and written
+ * to the archive in order as soon as they are ready, so the compression of the next entries overlaps with writing
+ * (and uploading) the previous ones.
+ *
+ * The number of the entries compressed ahead of the writer is limited, so are the entries that are compressed in
+ * memory. The entries larger than {@link #MAX_BUFFERED_ENTRY_SIZE} are compressed by the writing thread directly into
+ * the output stream.
+ *
+ * The archives are reproducible: the entries are sorted by name, their modification time is fixed and their
+ * permissions are normalized, so the same content always results in the same archive.
+ */
+public class ParallelZipArchiver {
+
+    private static final int MAX_BUFFERED_ENTRY_SIZE = 8 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long ENTRY_TIME = new GregorianCalendar(1980, Calendar.JANUARY, 1).getTimeInMillis();
+    private static final int FILE_MODE = 0100644;
+    private static final int EXECUTABLE_FILE_MODE = 0100755;
+
+    private final ExecutorService executor;
+    private final int window;
+
+    /**
+     * @param executor the executor compressing the entries
+     * @param parallelism the number of threads of the executor available for the compression
+     */
+    public ParallelZipArchiver(ExecutorService executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be greater than zero");
+        }
+        this.executor = executor;
+        this.window = parallelism * 2;
+    }
+
+    /**
+     * Zips the content of the directory into the given output stream. The output stream is not closed.
+     *
+     * @param directory the directory to zip
+     * @param outputStream the output stream the archive is written to
+     * @throws IOException if an I/O error occurs while reading the files or writing the archive
+     */
+    public void archive(Path directory, OutputStream outputStream) throws IOException {
+        Map<String, Path> files = listFiles(directory);
+        Deque<Future<CompressedEntry>> compressions = new ArrayDeque<>();
+        Iterator<Map.Entry<String, Path>> pending = files.entrySet().iterator();
+        try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(new NonClosingOutputStream(outputStream))) {
+            while (pending.hasNext() || !compressions.isEmpty()) {
+                while (pending.hasNext() && compressions.size() < window) {
+                    Map.Entry<String, Path> file = pending.next();
+                    compressions.add(executor.submit(() -> compress(file.getValue(), file.getKey())));
+                }
+
+                CompressedEntry compressedEntry = await(compressions.poll());
+                if (compressedEntry.getData() != null) {
+                    zipOutputStream.addRawArchiveEntry(compressedEntry.getEntry(), compressedEntry.getData());
+                } else {
+                    zipOutputStream.putArchiveEntry(compressedEntry.getEntry());
+                    Files.copy(compressedEntry.getFile(), zipOutputStream);
+                    zipOutputStream.closeArchiveEntry();
+                }
+            }
+            zipOutputStream.finish();
+        } finally {
+            compressions.forEach(compression -> compression.cancel(true));
+        }
+    }
+
+    /**
+     * Returns the files of the directory sorted by their entry names.
+     */
+    private Map<String, Path> listFiles(Path directory) throws IOException {
+        Map<String, Path> files = new TreeMap<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = Streams.stream(directory.relativize(file))
+                        .map(Path::toString)
+                        .collect(Collectors.joining("/"));
+                files.put(name, file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return files;
+    }
+
+    private CompressedEntry compress(Path file, String name) throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setSize(Files.size(file));
+        entry.setTime(ENTRY_TIME);
+        entry.setUnixMode(Files.isExecutable(file) ? EXECUTABLE_FILE_MODE : FILE_MODE);
+        if (entry.getSize() > MAX_BUFFERED_ENTRY_SIZE) {
+            return new CompressedEntry(entry, file, null);
+        }
+
+        CRC32 crc = new CRC32();
+        ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        long size = 0;
+        try (
+                InputStream inputStream = Files.newInputStream(file);
+                OutputStream outputStream = new DeflaterOutputStream(compressedData, deflater, BUFFER_SIZE)
+        ) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, bytesRead);
+                outputStream.write(buffer, 0, bytesRead);
+                size += bytesRead;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        entry.setMethod(ZipEntry.DEFLATED);
+        entry.setSize(size);
+        entry.setCompressedSize(compressedData.size());
+        entry.setCrc(crc.getValue());
+        return new CompressedEntry(entry, file, new ByteArrayInputStream(compressedData.toByteArray()));
+    }
+
+    private CompressedEntry await(Future<CompressedEntry> compression) throws IOException {
+        try {
+            return compression.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the entry to be compressed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to compress the entry", e.getCause());
+        }
+    }
+
+    private static class CompressedEntry {
+
+        private final ZipArchiveEntry entry;
+        private final Path file;
+        private final InputStream data;
+
+        private CompressedEntry(ZipArchiveEntry entry, Path file, InputStream data) {
+            this.entry = entry;
+            this.file = file;
+            this.data = data;
+        }
+
+        public ZipArchiveEntry getEntry() {
+            return entry;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * Returns the compressed data or {@code null} if the entry is too large to be compressed in memory.
+         */
+        public InputStream getData() {
+            return data;
+        }
+
+    }
+
+    /**
+     * Prevents the underlying stream from being closed when the archive is finished.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
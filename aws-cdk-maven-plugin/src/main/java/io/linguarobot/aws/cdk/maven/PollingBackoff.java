@@ -0,0 +1,39 @@
+package io.linguarobot.aws.cdk.maven;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes the delays between the polls: the delay is reset to the minimum when there is some activity and grows
+ * exponentially up to the maximum otherwise. The delays are randomized by up to 20%, so that the builds deploying
+ * at the same time don't poll in lockstep.
+ */
+class PollingBackoff {
+
+    private static final double MULTIPLIER = 1.5;
+    private static final double JITTER = 0.2;
+
+    private final Duration minDelay;
+    private final Duration maxDelay;
+
+    private Duration delay;
+
+    PollingBackoff(Duration minDelay, Duration maxDelay) {
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.delay = minDelay;
+    }
+
+    public synchronized Duration next(boolean active) {
+        if (active) {
+            delay = minDelay;
+        } else {
+            long nextDelay = Math.min(maxDelay.toMillis(), (long) (delay.toMillis() * MULTIPLIER));
+            delay = Duration.ofMillis(nextDelay);
+        }
+
+        double jitter = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Duration.ofMillis((long) (delay.toMillis() * jitter));
+    }
+
+}
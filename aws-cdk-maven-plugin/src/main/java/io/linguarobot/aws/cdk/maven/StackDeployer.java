@@ -1,6 +1,10 @@
 package io.linguarobot.aws.cdk.maven;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Streams;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import io.linguarobot.aws.cdk.AssetMetadata;
 import io.linguarobot.aws.cdk.ContainerAssetData;
@@ -10,30 +14,40 @@ import io.linguarobot.aws.cdk.FileAssetMetadata;
 import org.apache.maven.settings.Settings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
-import software.amazon.awssdk.services.cloudformation.CloudFormationClient;
+import software.amazon.awssdk.services.cloudformation.CloudFormationAsyncClient;
 import software.amazon.awssdk.services.cloudformation.model.CloudFormationException;
 import software.amazon.awssdk.services.cloudformation.model.Output;
 import software.amazon.awssdk.services.cloudformation.model.Stack;
 import software.amazon.awssdk.services.cloudformation.model.StackStatus;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
+import javax.annotation.Nullable;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Deploys the stacks of an environment. The CloudFormation requests are non-blocking: a deployment is a chain of
+ * futures completed by the CloudFormation client and the status poller, so many stacks can be deployed at the same
+ * time without a thread per stack waiting for the responses.
+ */
 public class StackDeployer {
 
     private static final Logger logger = LoggerFactory.getLogger(StackDeployer.class);
@@ -46,96 +60,146 @@ public class StackDeployer {
     private static final String FILE_PACKAGING = "file";
     private static final String IMAGE_PACKAGING = "container-image";
     private static final int MAX_TEMPLATE_SIZE = 50 * 1024;
+    private static final int MAX_OUTPUTS = 200;
+    private static final String FINGERPRINT_OUTPUT = "AwsCdkMavenPluginFingerprint";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    private final CloudFormationClient client;
+    private final CloudFormationAsyncClient client;
     private final Path cloudAssemblyDirectory;
     private final ResolvedEnvironment environment;
     private final ToolkitConfiguration toolkitConfiguration;
     private final FileAssetPublisher fileAssetPublisher;
     private final DockerImageAssetPublisher dockerImagePublisher;
+    private final AssetPublishingExecutor publishingExecutor;
+    private final DockerImageBuildScheduler imageBuildScheduler;
+    private final Executor preparationExecutor;
+    private final AssetPublicationRegistry publicationRegistry;
     private final Settings settings;
+    private final StackStatusPoller statusPoller;
+    private final Map<List<String>, ScheduledImage> scheduledImages;
+    private final Set<String> skippedStacks;
 
     public StackDeployer(Path cloudAssemblyDirectory,
                          ResolvedEnvironment environment,
+                         CloudFormationAsyncClient client,
                          ToolkitConfiguration toolkitConfiguration,
                          FileAssetPublisher fileAssetPublisher,
                          DockerImageAssetPublisher dockerImagePublisher,
+                         AssetPublishingExecutor publishingExecutor,
+                         DockerImageBuildScheduler imageBuildScheduler,
+                         Executor preparationExecutor,
+                         AssetPublicationRegistry publicationRegistry,
                          Settings settings) {
         this.cloudAssemblyDirectory = cloudAssemblyDirectory;
         this.environment = environment;
         this.toolkitConfiguration = toolkitConfiguration;
         this.fileAssetPublisher = fileAssetPublisher;
         this.dockerImagePublisher = dockerImagePublisher;
+        this.publishingExecutor = publishingExecutor;
+        this.imageBuildScheduler = imageBuildScheduler;
+        this.preparationExecutor = preparationExecutor;
+        this.publicationRegistry = publicationRegistry;
         this.settings = settings;
-        this.client = CloudFormationClient.builder()
-                .region(environment.getRegion())
-                .credentialsProvider(StaticCredentialsProvider.create(environment.getCredentials()))
-                .build();
+        this.client = client;
+        this.statusPoller = new StackStatusPoller(client);
+        this.scheduledImages = new HashMap<>();
+        this.skippedStacks = new HashSet<>();
     }
 
-    public Stack deploy(StackDefinition stackDefinition, Map<String, String> parameters, Map<String, String> tags) {
+    /**
+     * Deploys the stack without blocking the calling thread.
+     *
+     * @return the future completed with the deployed stack or with {@link StackDeploymentException} if the deployment
+     *         has failed
+     */
+    public CompletableFuture<Stack> deployAsync(StackDefinition stackDefinition,
+                                                Map<String, String> parameters,
+                                                Map<String, String> tags) {
         String stackName = stackDefinition.getStackName();
         logger.info("Deploying '{}' stack", stackName);
 
-        Map<String, ParameterValue> stackParameters = new HashMap<>();
-        Stack deployedStack = Stacks.findStack(client, stackName).orElse(null);
-        if (deployedStack != null) {
-            if (Stacks.isInProgress(deployedStack)) {
-                logger.info("Waiting until stack '{}' reaches stable state", deployedStack.stackName());
-                deployedStack = awaitCompletion(deployedStack);
-            }
-            if (deployedStack.stackStatus() == StackStatus.ROLLBACK_COMPLETE || deployedStack.stackStatus() == StackStatus.ROLLBACK_FAILED) {
-                logger.warn("The stack '{}' is in {} state after unsuccessful creation. The stack will be deleted " +
-                        "and re-created.", stackName, deployedStack.stackStatus());
-                deployedStack = Stacks.awaitCompletion(client, Stacks.deleteStack(client, deployedStack.stackName()));
-            }
-            if (Stacks.isFailed(deployedStack)) {
-                throw StackDeploymentException.builder(stackName, environment)
-                        .withCause("The stack '" + stackName + "' is in the failed state " + deployedStack.stackStatus())
-                        .build();
-            }
-            if (deployedStack.stackStatus() != StackStatus.DELETE_COMPLETE) {
-                deployedStack.parameters().forEach(p -> stackParameters.put(p.parameterKey(), ParameterValue.unchanged()));
-            }
+        return AsyncStacks.findStack(client, stackName)
+                .thenCompose(stack -> stack.isPresent()
+                        ? prepare(stackName, stack.get())
+                        : CompletableFuture.<Stack>completedFuture(null))
+                .thenCompose(deployedStack -> {
+                    CompletableFuture<Toolkit> toolkit = requiresToolkit(stackDefinition)
+                            ? getToolkit(stackDefinition)
+                            : CompletableFuture.completedFuture(null);
+                    // reading, fingerprinting and writing the template is blocking, so it mustn't run on the threads
+                    // completing the CloudFormation calls
+                    return toolkit.thenComposeAsync(t -> deploy(stackDefinition, deployedStack, t, parameters, tags),
+                            preparationExecutor);
+                });
+    }
+
+    private boolean requiresToolkit(StackDefinition stackDefinition) {
+        return stackDefinition.getAssets().stream()
+                .anyMatch(asset -> asset.getPackaging().equals(FILE_PACKAGING) || asset.getPackaging().equals(ZIP_PACKAGING));
+    }
+
+    /**
+     * Brings the deployed stack to a state in which it can be updated: awaits the operation in progress and deletes
+     * the stack if its creation has been unsuccessful.
+     */
+    private CompletableFuture<Stack> prepare(String stackName, Stack deployedStack) {
+        CompletableFuture<Stack> stableStack = CompletableFuture.completedFuture(deployedStack);
+        if (Stacks.isInProgress(deployedStack)) {
+            logger.info("Waiting until stack '{}' reaches stable state", deployedStack.stackName());
+            stableStack = awaitCompletion(deployedStack);
         }
 
-        Streams.concat(stackDefinition.getParameterValues().entrySet().stream(), parameters.entrySet().stream())
-                .filter(parameter -> parameter.getKey() != null && parameter.getValue() != null)
-                .forEach(parameter -> stackParameters.put(parameter.getKey(), ParameterValue.value(parameter.getValue())));
+        return stableStack
+                .thenCompose(stack -> {
+                    if (stack.stackStatus() == StackStatus.ROLLBACK_COMPLETE || stack.stackStatus() == StackStatus.ROLLBACK_FAILED) {
+                        logger.warn("The stack '{}' is in {} state after unsuccessful creation. The stack will be deleted " +
+                                "and re-created.", stackName, stack.stackStatus());
+                        return AsyncStacks.deleteStack(client, stack.stackName()).thenCompose(this::awaitCompletion);
+                    }
+                    return CompletableFuture.completedFuture(stack);
+                })
+                .thenApply(stack -> {
+                    if (Stacks.isFailed(stack)) {
+                        throw StackDeploymentException.builder(stackName, environment)
+                                .withCause("The stack '" + stackName + "' is in the failed state " + stack.stackStatus())
+                                .build();
+                    }
+                    return stack;
+                });
+    }
 
-        Toolkit toolkit = null;
-        List<Runnable> publishmentTasks = new ArrayList<>();
+    private CompletableFuture<Stack> deploy(StackDefinition stackDefinition,
+                                            @Nullable Stack deployedStack,
+                                            @Nullable Toolkit toolkit,
+                                            Map<String, String> parameters,
+                                            Map<String, String> tags) {
+        String stackName = stackDefinition.getStackName();
+        List<PublishingTask> publishingTasks = new ArrayList<>();
         for (AssetMetadata asset : stackDefinition.getAssets()) {
             switch (asset.getPackaging()) {
                 case FILE_PACKAGING:
                 case ZIP_PACKAGING:
-                    if (toolkit == null) {
-                        toolkit = getToolkit(stackDefinition);
-                    }
                     FileAssetMetadata fileAsset = (FileAssetMetadata) asset;
                     String bucketName = toolkit.getBucketName();
                     String prefix = generatePrefix(fileAsset);
                     String filename = generateFilename(fileAsset);
-                    FileAssetData fileData = fileAsset.getData();
-                    stackParameters.put(fileData.getS3BucketParameter(), ParameterValue.value(toolkit.getBucketName()));
-                    stackParameters.put(fileData.getS3KeyParameter(), ParameterValue.value(String.join(ASSET_PREFIX_SEPARATOR, prefix, filename)));
-                    stackParameters.put(fileData.getArtifactHashParameter(), ParameterValue.value(fileAsset.getSourceHash()));
-
-                    publishmentTasks.add(() -> {
+                    publishingTasks.add(PublishingTask.of(asset.getId(), bucketName, prefix + filename, () -> publishingExecutor.publishFile(() -> {
                         Path file = cloudAssemblyDirectory.resolve(fileAsset.getPath());
                         try {
-                            fileAssetPublisher.publish(file, prefix + filename, bucketName);
+                            fileAssetPublisher.publish(file, prefix + filename, bucketName, fileAsset.getSourceHash());
                         } catch (IOException e) {
                             throw StackDeploymentException.builder(stackName, environment)
                                     .withCause("An error occurred while publishing the file asset " + file)
                                     .withCause(e)
                                     .build();
                         }
-                    });
+                    })));
                     break;
                 case IMAGE_PACKAGING:
                     ContainerImageAssetMetadata imageAsset = (ContainerImageAssetMetadata) asset;
-                    publishmentTasks.add(createImagePublishmentTask(stackName, imageAsset));
+                    ContainerAssetData imageData = imageAsset.getData();
+                    publishingTasks.add(PublishingTask.of(asset.getId(), imageData.getRepositoryName(),
+                            imageData.getImageTag(), createImagePublication(stackName, imageAsset)));
                     break;
                 default:
                     throw StackDeploymentException.builder(stackName, environment)
@@ -145,12 +209,7 @@ public class StackDeployer {
             }
         }
 
-        Map<String, ParameterValue> effectiveParameters = stackParameters.entrySet().stream()
-                .filter(parameter -> stackDefinition.getParameters().containsKey(parameter.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        TemplateRef templateRef = getTemplateRef(stackDefinition, publishmentTasks);
-
+        Map<String, ParameterValue> effectiveParameters = resolveParameters(stackDefinition, deployedStack, toolkit, parameters);
         List<String> missingParameters = stackDefinition.getParameters().values().stream()
                 .filter(parameterDefinition -> parameterDefinition.getDefaultValue() == null)
                 .filter(parameterDefinition -> !effectiveParameters.containsKey(parameterDefinition.getName()))
@@ -162,60 +221,342 @@ public class StackDeployer {
                     .withCause("The values for the following template parameters are missing: " + String.join(", ", missingParameters))
                     .build();
         }
-        try {
-            publishmentTasks.forEach(Runnable::run);
-        } catch (CdkPluginException e) {
-            throw StackDeploymentException.builder(stackName, environment)
-                    .withCause(e.getMessage())
-                    .withCause(e.getCause())
-                    .build();
-        } catch (Exception e) {
-            throw StackDeploymentException.builder(stackName, environment)
-                    .withCause(e)
-                    .build();
+
+        String templateBody = readTemplateBody(stackDefinition);
+        String fingerprint = fingerprint(stackDefinition, templateBody, effectiveParameters, tags);
+        if (isDeployed(deployedStack, fingerprint)) {
+            logger.info("The stack '{}' is up to date (fingerprint {}). The deployment will be skipped",
+                    stackName, fingerprint);
+            return CompletableFuture.completedFuture(deployedStack);
         }
 
-        boolean updated = true;
-        Stack stack;
+        return getTemplateRef(stackDefinition, toolkit, withFingerprint(templateBody, fingerprint), publishingTasks)
+                .thenCompose(templateRef -> publish(stackName, publishingTasks).thenApply(r -> templateRef))
+                .thenCompose(templateRef -> {
+                    if (deployedStack == null || deployedStack.stackStatus() == StackStatus.DELETE_COMPLETE) {
+                        return AsyncStacks.createStack(client, stackName, templateRef, effectiveParameters, tags)
+                                .thenCompose(stack -> awaitDeployment(stackName, stack));
+                    }
+
+                    return AsyncStacks.updateStack(client, stackName, templateRef, effectiveParameters, tags)
+                            .handle((stack, e) -> {
+                                if (e == null) {
+                                    return stack;
+                                }
+                                Throwable cause = AsyncStacks.unwrap(e);
+                                if (!(cause instanceof CloudFormationException) || !isNoUpdatesError((CloudFormationException) cause)) {
+                                    throw AsyncStacks.propagate(e);
+                                }
+                                return null;
+                            })
+                            .thenCompose(stack -> {
+                                if (stack == null) {
+                                    logger.info("No changes of the '{}' stack are detected. The deployment will be skipped", stackName);
+                                    return CompletableFuture.completedFuture(deployedStack);
+                                }
+                                return awaitDeployment(stackName, stack);
+                            });
+                });
+    }
+
+    /**
+     * Resolves the values of the template parameters: the parameters of the deployed stack keep their values unless
+     * the values are defined by the stack definition, the given parameters or the file assets of the stack.
+     */
+    private Map<String, ParameterValue> resolveParameters(StackDefinition stackDefinition,
+                                                          @Nullable Stack deployedStack,
+                                                          @Nullable Toolkit toolkit,
+                                                          Map<String, String> parameters) {
+        Map<String, ParameterValue> stackParameters = new HashMap<>();
         if (deployedStack != null && deployedStack.stackStatus() != StackStatus.DELETE_COMPLETE) {
-            try {
-                stack = Stacks.updateStack(client, stackName, templateRef, effectiveParameters, tags);
-            } catch (CloudFormationException e) {
-                AwsErrorDetails errorDetails = e.awsErrorDetails();
-                if (!errorDetails.errorCode().equals("ValidationError") ||
-                        !errorDetails.errorMessage().startsWith("No updates are to be performed")) {
-                    throw e;
-                }
-                logger.info("No changes of the '{}' stack are detected. The deployment will be skipped", stackName);
-                stack = deployedStack;
-                updated = false;
-            }
-        } else {
-            stack = Stacks.createStack(client, stackName, templateRef, effectiveParameters, tags);
+            deployedStack.parameters().forEach(p -> stackParameters.put(p.parameterKey(), ParameterValue.unchanged()));
         }
 
-        if (updated) {
-            if (!Stacks.isCompleted(stack)) {
-                logger.info("Waiting until '{}' reaches stable state", stackName);
-                stack = awaitCompletion(stack);
-            }
-            if (Stacks.isFailed(stack)) {
+        Streams.concat(stackDefinition.getParameterValues().entrySet().stream(), parameters.entrySet().stream())
+                .filter(parameter -> parameter.getKey() != null && parameter.getValue() != null)
+                .forEach(parameter -> stackParameters.put(parameter.getKey(), ParameterValue.value(parameter.getValue())));
+
+        stackDefinition.getAssets().stream()
+                .filter(asset -> asset.getPackaging().equals(FILE_PACKAGING) || asset.getPackaging().equals(ZIP_PACKAGING))
+                .map(asset -> (FileAssetMetadata) asset)
+                .forEach(fileAsset -> {
+                    String prefix = generatePrefix(fileAsset);
+                    String filename = generateFilename(fileAsset);
+                    FileAssetData fileData = fileAsset.getData();
+                    stackParameters.put(fileData.getS3BucketParameter(), ParameterValue.value(toolkit.getBucketName()));
+                    stackParameters.put(fileData.getS3KeyParameter(), ParameterValue.value(String.join(ASSET_PREFIX_SEPARATOR, prefix, filename)));
+                    stackParameters.put(fileData.getArtifactHashParameter(), ParameterValue.value(fileAsset.getSourceHash()));
+                });
+
+        return stackParameters.entrySet().stream()
+                .filter(parameter -> stackDefinition.getParameters().containsKey(parameter.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Checks whether the stack has been deployed with the given fingerprint.
+     */
+    private boolean isDeployed(@Nullable Stack deployedStack, String fingerprint) {
+        if (deployedStack == null || deployedStack.stackStatus() == StackStatus.DELETE_COMPLETE) {
+            return false;
+        }
+
+        return Stacks.findOutput(deployedStack, FINGERPRINT_OUTPUT)
+                .map(Output::outputValue)
+                .filter(fingerprint::equals)
+                .isPresent();
+    }
+
+    private boolean isNoUpdatesError(CloudFormationException e) {
+        AwsErrorDetails errorDetails = e.awsErrorDetails();
+        return errorDetails.errorCode().equals("ValidationError") &&
+                errorDetails.errorMessage().startsWith("No updates are to be performed");
+    }
+
+    /**
+     * Awaits until the stack operation started by the deployment is completed and checks whether it has succeeded.
+     */
+    private CompletableFuture<Stack> awaitDeployment(String stackName, Stack stack) {
+        CompletableFuture<Stack> completedStack = CompletableFuture.completedFuture(stack);
+        if (!Stacks.isCompleted(stack)) {
+            logger.info("Waiting until '{}' reaches stable state", stackName);
+            completedStack = awaitCompletion(stack);
+        }
+
+        return completedStack.thenApply(deployedStack -> {
+            if (Stacks.isFailed(deployedStack)) {
                 throw StackDeploymentException.builder(stackName, environment)
-                        .withCause("The deployment has failed: " + stack.stackStatus())
+                        .withCause("The deployment has failed: " + deployedStack.stackStatus())
                         .build();
             }
-            if (Stacks.isRolledBack(stack)) {
+            if (Stacks.isRolledBack(deployedStack)) {
                 throw StackDeploymentException.builder(stackName, environment)
                         .withCause("The deployment has been unsuccessful, the stack has been rolled back to its previous state")
                         .build();
             }
             logger.info("The stack '{}' has been successfully deployed", stackName);
+            return deployedStack;
+        });
+    }
+
+    /**
+     * Starts publishing the Docker image assets of the stacks without waiting for the stacks to be deployed, so that
+     * the images of all the stacks are built concurrently. Only the images of the stacks that will be updated by the
+     * deployment are published, the stacks that are up to date are skipped. The images are first checked in batches
+     * per repository and only the missing ones are built. The publications are registered in the publication registry
+     * and are awaited when the stacks are deployed. If an image cannot be published, the failure is reported by the
+     * deployment of the stack.
+     */
+    public void scheduleImagePublications(List<StackDefinition> stackDefinitions,
+                                          Map<String, String> parameters,
+                                          Map<String, String> tags) {
+        Map<StackDefinition, CompletableFuture<Boolean>> deploymentChecks = new LinkedHashMap<>();
+        stackDefinitions.stream()
+                .filter(stackDefinition -> stackDefinition.getAssets().stream()
+                        .anyMatch(asset -> asset.getPackaging().equals(IMAGE_PACKAGING)))
+                .forEach(stackDefinition -> deploymentChecks.put(stackDefinition,
+                        isDeploymentRequired(stackDefinition, parameters, tags)));
+
+        CompletableFuture.allOf(deploymentChecks.values().toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> {
+                    List<StackDefinition> deployedStacks = deploymentChecks.entrySet().stream()
+                            .filter(deploymentCheck -> deploymentCheck.getValue().join())
+                            .map(Map.Entry::getKey)
+                            .collect(Collectors.toList());
+                    scheduleImagePublications(deployedStacks);
+                }, preparationExecutor)
+                .whenComplete((r, e) -> {
+                    if (e != null) {
+                        // the images are published along with the stacks
+                        logger.debug("Unable to schedule the publication of the docker images", e);
+                    }
+                });
+    }
+
+    private void scheduleImagePublications(List<StackDefinition> stackDefinitions) {
+        Map<ContainerImageAssetMetadata, String> imageAssets = new LinkedHashMap<>();
+        Map<List<String>, Set<String>> imageStacks = new HashMap<>();
+        stackDefinitions.forEach(stackDefinition -> stackDefinition.getAssets().stream()
+                .filter(asset -> asset.getPackaging().equals(IMAGE_PACKAGING))
+                .map(asset -> (ContainerImageAssetMetadata) asset)
+                .forEach(asset -> {
+                    imageAssets.putIfAbsent(asset, stackDefinition.getStackName());
+                    imageStacks.computeIfAbsent(toImageKey(asset.getData()), key -> new HashSet<>())
+                            .add(stackDefinition.getStackName());
+                }));
+
+        Map<String, Set<String>> publishedImages = new HashMap<>();
+        imageAssets.keySet().stream()
+                .map(ContainerImageAssetMetadata::getData)
+                .collect(Collectors.groupingBy(ContainerAssetData::getRepositoryName,
+                        Collectors.mapping(ContainerAssetData::getImageTag, Collectors.toSet())))
+                .forEach((repositoryName, tags) -> {
+                    try {
+                        publishedImages.put(repositoryName, dockerImagePublisher.checkPublishedImages(repositoryName, tags));
+                    } catch (RuntimeException e) {
+                        // the images are checked one by one when they're published
+                        logger.debug("Unable to check the images in the repository {}", repositoryName, e);
+                    }
+                });
+
+        imageAssets.forEach((imageAsset, stackName) -> {
+            ContainerAssetData imageData = imageAsset.getData();
+            boolean published = publishedImages.getOrDefault(imageData.getRepositoryName(), Collections.emptySet())
+                    .contains(imageData.getImageTag());
+            List<String> imageKey = toImageKey(imageData);
+            synchronized (scheduledImages) {
+                Set<String> stackNames = imageStacks.get(imageKey);
+                stackNames.removeAll(skippedStacks);
+                if (stackNames.isEmpty()) {
+                    return;
+                }
+
+                publicationRegistry.publish(environment.getName(), imageData.getRepositoryName(), imageData.getImageTag(), () -> {
+                    CompletableFuture<Void> publication;
+                    if (published) {
+                        publication = CompletableFuture.completedFuture(null);
+                    } else {
+                        try {
+                            publication = createImagePublication(stackName, imageAsset).get();
+                        } catch (RuntimeException e) {
+                            publication = new CompletableFuture<>();
+                            publication.completeExceptionally(e);
+                        }
+                    }
+                    scheduledImages.put(imageKey, new ScheduledImage(publication, stackNames));
+                    return publication;
+                });
+            }
+        });
+    }
+
+    /**
+     * Cancels the publications of the Docker images scheduled for the stack that won't be deployed. An image is
+     * cancelled only if none of the other stacks that are being deployed uses it.
+     */
+    public void cancelImagePublications(StackDefinition stackDefinition) {
+        String stackName = stackDefinition.getStackName();
+        synchronized (scheduledImages) {
+            skippedStacks.add(stackName);
+            scheduledImages.entrySet().removeIf(scheduledImage -> {
+                Set<String> stackNames = scheduledImage.getValue().getStackNames();
+                stackNames.remove(stackName);
+                if (!stackNames.isEmpty()) {
+                    return false;
+                }
+                if (scheduledImage.getValue().getPublication().cancel(false)) {
+                    logger.info("The publication of the docker image {} has been cancelled as the stacks using it " +
+                            "won't be deployed", String.join(":", scheduledImage.getKey()));
+                }
+                return true;
+            });
         }
+    }
+
+    /**
+     * Checks whether the deployment would update the stack. Unlike the deployment, the check doesn't wait for the
+     * stack operation in progress: the stacks that aren't stable as well as the stacks that can't be checked are
+     * considered to require the deployment.
+     */
+    private CompletableFuture<Boolean> isDeploymentRequired(StackDefinition stackDefinition,
+                                                            Map<String, String> parameters,
+                                                            Map<String, String> tags) {
+        return AsyncStacks.findStack(client, stackDefinition.getStackName())
+                .thenCompose(stack -> {
+                    Stack deployedStack = stack.orElse(null);
+                    if (deployedStack == null || Stacks.isInProgress(deployedStack) || Stacks.isFailed(deployedStack) ||
+                            deployedStack.stackStatus() == StackStatus.ROLLBACK_COMPLETE) {
+                        return CompletableFuture.completedFuture(true);
+                    }
+
+                    CompletableFuture<Toolkit> toolkit = requiresToolkit(stackDefinition)
+                            ? getToolkit(stackDefinition)
+                            : CompletableFuture.completedFuture(null);
+                    return toolkit.thenApplyAsync(t -> {
+                        Map<String, ParameterValue> effectiveParameters = resolveParameters(stackDefinition, deployedStack, t, parameters);
+                        String templateBody = readTemplateBody(stackDefinition);
+                        return !isDeployed(deployedStack, fingerprint(stackDefinition, templateBody, effectiveParameters, tags));
+                    }, preparationExecutor);
+                })
+                .exceptionally(e -> {
+                    logger.debug("Unable to check whether the stack '{}' is up to date", stackDefinition.getStackName(), e);
+                    return true;
+                });
+    }
 
-        return stack;
+    private static List<String> toImageKey(ContainerAssetData imageData) {
+        return ImmutableList.of(imageData.getRepositoryName(), imageData.getImageTag());
     }
 
-    private Runnable createImagePublishmentTask(String stackName, ContainerImageAssetMetadata imageAsset) {
+    /**
+     * Publishes the assets concurrently using the publishing executor. The returned future is completed once all of
+     * them are published. All the tasks are run to completion even if some of them fail, the failures are reported per
+     * asset. The assets that have been already published (or are being published) for another stack during the
+     * deployment are not published again.
+     */
+    private CompletableFuture<Void> publish(String stackName, List<PublishingTask> publishingTasks) {
+        Map<String, CompletableFuture<Void>> publishments = new LinkedHashMap<>();
+        for (PublishingTask task : publishingTasks) {
+            CompletableFuture<Void> publishment;
+            synchronized (scheduledImages) {
+                // the scheduled image mustn't be cancelled once it's used by a stack being deployed
+                ScheduledImage scheduledImage = scheduledImages.get(ImmutableList.of(task.getDestination(), task.getKey()));
+                if (scheduledImage != null) {
+                    scheduledImage.getStackNames().add(stackName);
+                }
+                publishment = publicationRegistry.publish(environment.getName(), task.getDestination(), task.getKey(),
+                        task.getPublication());
+            }
+            publishments.put(task.getName(), publishment);
+        }
+
+        return CompletableFuture.allOf(publishments.values().toArray(new CompletableFuture[0]))
+                .handle((r, e) -> null)
+                .thenRun(() -> checkPublishments(stackName, publishments));
+    }
+
+    private void checkPublishments(String stackName, Map<String, CompletableFuture<Void>> publishments) {
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        publishments.forEach((name, publishment) -> {
+            try {
+                publishment.join();
+            } catch (CompletionException e) {
+                failures.put(name, e.getCause() != null ? e.getCause() : e);
+            }
+        });
+
+        if (failures.size() == 1) {
+            Throwable failure = failures.values().iterator().next();
+            if (failure instanceof StackDeploymentException) {
+                throw (StackDeploymentException) failure;
+            }
+            if (failure instanceof CdkPluginException) {
+                throw StackDeploymentException.builder(stackName, environment)
+                        .withCause(failure.getMessage())
+                        .withCause(failure.getCause())
+                        .build();
+            }
+            throw StackDeploymentException.builder(stackName, environment)
+                    .withCause(failure)
+                    .build();
+        }
+        if (!failures.isEmpty()) {
+            StringBuilder errorMessage = new StringBuilder("The publishing of the following assets has failed: ")
+                    .append(String.join(", ", failures.keySet()));
+            failures.forEach((name, failure) -> errorMessage.append(System.lineSeparator())
+                    .append(" - ")
+                    .append(name)
+                    .append(": ")
+                    .append(failure.getMessage()));
+            StackDeploymentException exception = StackDeploymentException.builder(stackName, environment)
+                    .withCause(errorMessage.toString())
+                    .build();
+            failures.values().forEach(exception::addSuppressed);
+            throw exception;
+        }
+    }
+
+    private Supplier<CompletableFuture<Void>> createImagePublication(String stackName, ContainerImageAssetMetadata imageAsset) {
         Path contextDirectory = cloudAssemblyDirectory.resolve(imageAsset.getPath());
         if (!Files.exists(contextDirectory)) {
             throw StackDeploymentException.builder(stackName, environment)
@@ -247,11 +588,24 @@ public class StackDeployer {
                     .withImageTag(localTag)
                     .withArguments(imageData.getBuildArguments())
                     .withTarget(imageData.getTarget())
+                    .withCacheTag(generateCacheTag(stackName, contextDirectory, dockerfilePath, imageData.getTarget()))
                     .build();
-            dockerImagePublisher.publish(imageData.getRepositoryName(), imageData.getImageTag(), imageBuild);
+            return imageBuildScheduler.schedule(dockerImagePublisher, imageData.getRepositoryName(),
+                    imageData.getImageTag(), imageBuild);
         };
     }
 
+    /**
+     * Generates the tag of the image that holds the layer cache of the image asset. Unlike the asset ID, the tag
+     * doesn't depend on the content of the asset, so that the next build of the asset can reuse the cache of the
+     * previous one.
+     */
+    private String generateCacheTag(String stackName, Path contextDirectory, Path dockerfilePath, @Nullable String target) {
+        String key = String.join(":", stackName, contextDirectory.relativize(dockerfilePath).toString(),
+                target != null ? target : "");
+        return "cache-" + Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString().substring(0, 16);
+    }
+
     private Optional<Path> findDockerfile(Path contextDirectory) {
         Path dockerfile = contextDirectory.resolve("Dockerfile");
         if (!Files.exists(dockerfile)) {
@@ -261,69 +615,138 @@ public class StackDeployer {
         return Optional.of(dockerfile).filter(Files::exists);
     }
 
-    private TemplateRef getTemplateRef(StackDefinition stackDefinition, List<Runnable> deploymentTasks) {
+    private CompletableFuture<TemplateRef> getTemplateRef(StackDefinition stackDefinition,
+                                                          @Nullable Toolkit toolkit,
+                                                          String templateBody,
+                                                          List<PublishingTask> publishingTasks) {
+        byte[] templateContent = templateBody.getBytes(StandardCharsets.UTF_8);
+        if (templateContent.length <= MAX_TEMPLATE_SIZE) {
+            return CompletableFuture.completedFuture(TemplateRef.fromString(templateBody));
+        }
+
         Path templateFile = cloudAssemblyDirectory.resolve(stackDefinition.getTemplateFile());
-        TemplateRef templateRef;
+        Path deploymentTemplateFile = templateFile.resolveSibling(stackDefinition.getStackName() + ".deployment.template.json");
         try {
-            templateRef = readTemplateBody(templateFile, MAX_TEMPLATE_SIZE)
-                    .map(TemplateRef::fromString)
-                    .orElse(null);
+            Files.write(deploymentTemplateFile, templateContent);
         } catch (IOException e) {
             throw StackDeploymentException.builder(stackDefinition.getStackName(), environment)
-                    .withCause("Unable to read the template file: " + templateFile)
+                    .withCause("Unable to write the template file: " + deploymentTemplateFile)
                     .withCause(e)
                     .build();
         }
 
-        if (templateRef == null) {
-            Toolkit toolkit = getToolkit(stackDefinition);
-            String contentHash;
-            try {
-                contentHash = hash(templateFile.toFile());
-            } catch (IOException e) {
-                throw StackDeploymentException.builder(stackDefinition.getStackName(), environment)
-                        .withCause("Unable to read the template file: " + templateFile)
-                        .withCause(e)
-                        .build();
-            }
-
-            String objectName = "cdk/" + stackDefinition.getStackName() + "/" + contentHash + ".json";
-            deploymentTasks.add(() -> {
+        String contentHash = Hashing.sha256().hashBytes(templateContent).toString();
+        String objectName = "cdk/" + stackDefinition.getStackName() + "/" + contentHash + ".json";
+        CompletableFuture<Toolkit> resolvedToolkit = toolkit != null
+                ? CompletableFuture.completedFuture(toolkit)
+                : getToolkit(stackDefinition);
+        return resolvedToolkit.thenApply(t -> {
+            publishingTasks.add(PublishingTask.of("template", t.getBucketName(), objectName, () -> publishingExecutor.publishFile(() -> {
                 try {
-                    fileAssetPublisher.publish(templateFile, objectName, toolkit.getBucketName());
+                    fileAssetPublisher.publish(deploymentTemplateFile, objectName, t.getBucketName());
                 } catch (IOException e) {
                     throw StackDeploymentException.builder(stackDefinition.getStackName(), environment)
                             .withCause("An error occurred while uploading the template file to the deployment bucket")
                             .withCause(e)
                             .build();
                 }
-            });
+            })));
 
-            templateRef = TemplateRef.fromUrl("https://" + toolkit.getBucketDomainName() + "/" + objectName);
-        }
-
-        return templateRef;
+            return TemplateRef.fromUrl("https://" + t.getBucketDomainName() + "/" + objectName);
+        });
     }
 
-    public Optional<Stack> destroy(StackDefinition stackDefinition) {
-        Stack stack = Stacks.findStack(client, stackDefinition.getStackName()).orElse(null);
-        if (stack != null && stack.stackStatus() != StackStatus.DELETE_COMPLETE) {
-            logger.info("The stack '${} is being deleted, awaiting until the operation is completed", stackDefinition.getStackName());
-            stack = awaitCompletion(Stacks.deleteStack(client, stack.stackId()));
-            if (stack.stackStatus() != StackStatus.DELETE_COMPLETE) {
-                throw new CdkPluginException("The deletion of '" + stackDefinition.getStackName() + "' stack has failed: " + stack.stackStatus());
+    /**
+     * Computes the fingerprint of the stack deployment. The fingerprint covers everything that is sent to
+     * CloudFormation on create or update: the template, the effective parameters, the tags and the assets referenced
+     * by the stack. The fingerprint identifies the inputs of the deployment, not the resulting stack: the resources
+     * might still differ, for example, if they have been modified outside of CloudFormation.
+     */
+    private String fingerprint(StackDefinition stackDefinition,
+                               String templateBody,
+                               Map<String, ParameterValue> parameters,
+                               Map<String, String> tags) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(templateBody, StandardCharsets.UTF_8);
+
+        new TreeMap<>(parameters).forEach((name, value) -> {
+            hasher.putByte((byte) 'p').putString(name, StandardCharsets.UTF_8).putByte((byte) 0);
+            if (value.isUpdated()) {
+                hasher.putByte((byte) 'v').putString(value.get(), StandardCharsets.UTF_8).putByte((byte) 0);
+            } else {
+                hasher.putByte((byte) 'u');
             }
-            logger.info("The stack '{}' has been successfully deleted", stack.stackName());
-        } else {
-            logger.warn("The generated template for the stack '{}' doesn't have any resources defined. The deployment " +
-                    "will be skipped", stackDefinition.getStackName());
+        });
+
+        new TreeMap<>(tags).forEach((key, value) -> hasher.putByte((byte) 't')
+                .putString(key, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(value, StandardCharsets.UTF_8).putByte((byte) 0));
+
+        stackDefinition.getAssets().stream()
+                .sorted(Comparator.comparing(AssetMetadata::getId))
+                .forEach(asset -> hasher.putByte((byte) 'a')
+                        .putString(asset.getId(), StandardCharsets.UTF_8).putByte((byte) 0)
+                        .putString(asset.getSourceHash(), StandardCharsets.UTF_8).putByte((byte) 0));
+
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Adds the fingerprint output to the given template. The template is returned as is if it cannot be parsed or
+     * already has the maximum number of outputs, in which case the stack will be always updated.
+     */
+    private String withFingerprint(String templateBody, String fingerprint) {
+        Map<String, Object> template;
+        try {
+            template = OBJECT_MAPPER.readValue(templateBody, new TypeReference<LinkedHashMap<String, Object>>() {});
+        } catch (IOException e) {
+            logger.debug("Unable to parse the template, the fingerprint output won't be added", e);
+            return templateBody;
         }
 
-        return Optional.ofNullable(stack);
+        Object outputs = template.computeIfAbsent("Outputs", key -> new LinkedHashMap<>());
+        if (!(outputs instanceof Map) || ((Map<?, ?>) outputs).size() >= MAX_OUTPUTS) {
+            return templateBody;
+        }
+
+        Map<String, Object> fingerprintOutput = new LinkedHashMap<>();
+        fingerprintOutput.put("Description", "The fingerprint of the last deployment performed by aws-cdk-maven-plugin");
+        fingerprintOutput.put("Value", fingerprint);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> templateOutputs = (Map<String, Object>) outputs;
+        templateOutputs.put(FINGERPRINT_OUTPUT, fingerprintOutput);
+
+        try {
+            return OBJECT_MAPPER.writeValueAsString(template);
+        } catch (IOException e) {
+            logger.debug("Unable to serialize the template, the fingerprint output won't be added", e);
+            return templateBody;
+        }
     }
 
-    private String hash(File file) throws IOException {
-        return com.google.common.io.Files.asByteSource(file).hash(Hashing.sha256()).toString();
+    /**
+     * Deletes the stack without blocking the calling thread.
+     */
+    public CompletableFuture<Optional<Stack>> destroyAsync(StackDefinition stackDefinition) {
+        return AsyncStacks.findStack(client, stackDefinition.getStackName()).thenCompose(deployedStack -> {
+            Stack stack = deployedStack.orElse(null);
+            if (stack == null || stack.stackStatus() == StackStatus.DELETE_COMPLETE) {
+                logger.warn("The generated template for the stack '{}' doesn't have any resources defined. The deployment " +
+                        "will be skipped", stackDefinition.getStackName());
+                return CompletableFuture.completedFuture(Optional.ofNullable(stack));
+            }
+
+            logger.info("The stack '${} is being deleted, awaiting until the operation is completed", stackDefinition.getStackName());
+            return AsyncStacks.deleteStack(client, stack.stackId())
+                    .thenCompose(this::awaitCompletion)
+                    .thenApply(deletedStack -> {
+                        if (deletedStack.stackStatus() != StackStatus.DELETE_COMPLETE) {
+                            throw new CdkPluginException("The deletion of '" + stackDefinition.getStackName() + "' stack has failed: " + deletedStack.stackStatus());
+                        }
+                        logger.info("The stack '{}' has been successfully deleted", deletedStack.stackName());
+                        return Optional.of(deletedStack);
+                    });
+        });
     }
 
     private String generateFilename(FileAssetMetadata fileAsset) {
@@ -351,31 +774,32 @@ public class StackDeployer {
         return prefix.toString();
     }
 
-    private Optional<String> readTemplateBody(Path template, long limit) throws IOException {
-        byte[] buffer = new byte[1024 * 8];
-        ByteArrayOutputStream templateBody = new ByteArrayOutputStream();
-        int bytesRead;
-        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(template.toFile()))) {
-            while (templateBody.size() <= limit && (bytesRead = inputStream.read(buffer)) != -1) {
-                templateBody.write(buffer, 0, bytesRead);
-            }
-        }
-
-        if (templateBody.size() > limit) {
-            return Optional.empty();
+    private String readTemplateBody(StackDefinition stackDefinition) {
+        Path templateFile = cloudAssemblyDirectory.resolve(stackDefinition.getTemplateFile());
+        try {
+            return new String(Files.readAllBytes(templateFile), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw StackDeploymentException.builder(stackDefinition.getStackName(), environment)
+                    .withCause("Unable to read the template file: " + templateFile)
+                    .withCause(e)
+                    .build();
         }
-
-        return Optional.of(templateBody.toString(StandardCharsets.UTF_8.name()));
     }
 
-    private Toolkit getToolkit(StackDefinition stack) {
-        Stack toolkitStack = Stacks.findStack(client, toolkitConfiguration.getStackName()).orElse(null);
-        if (toolkitStack != null && Stacks.isInProgress(toolkitStack)) {
-            logger.info("Waiting until toolkit stack reaches stable state, environment={}, stackName={}",
-                    environment, toolkitConfiguration.getStackName());
-            toolkitStack = awaitCompletion(toolkitStack);
-        }
+    private CompletableFuture<Toolkit> getToolkit(StackDefinition stack) {
+        return AsyncStacks.findStack(client, toolkitConfiguration.getStackName())
+                .thenCompose(toolkitStack -> {
+                    if (toolkitStack.isPresent() && Stacks.isInProgress(toolkitStack.get())) {
+                        logger.info("Waiting until toolkit stack reaches stable state, environment={}, stackName={}",
+                                environment, toolkitConfiguration.getStackName());
+                        return awaitCompletion(toolkitStack.get());
+                    }
+                    return CompletableFuture.completedFuture(toolkitStack.orElse(null));
+                })
+                .thenApply(toolkitStack -> toToolkit(stack, toolkitStack));
+    }
 
+    private Toolkit toToolkit(StackDefinition stack, @Nullable Stack toolkitStack) {
         if (toolkitStack == null || toolkitStack.stackStatus() == StackStatus.DELETE_COMPLETE ||
                 toolkitStack.stackStatus() == StackStatus.ROLLBACK_COMPLETE) {
             throw StackDeploymentException.builder(stack.getStackName(), environment)
@@ -426,14 +850,83 @@ public class StackDeployer {
         return new Toolkit(bucketName, bucketDomainName);
     }
 
-    private Stack awaitCompletion(Stack stack) {
-        Stack completedStack;
+    private CompletableFuture<Stack> awaitCompletion(Stack stack) {
+        LoggingStackEventListener eventListener = null;
         if (logger.isInfoEnabled() && settings.isInteractiveMode()) {
-            completedStack = Stacks.awaitCompletion(client, stack, new LoggingStackEventListener());
-        } else {
-            completedStack = Stacks.awaitCompletion(client, stack);
+            eventListener = new LoggingStackEventListener();
+        }
+        return statusPoller.awaitCompletion(stack, eventListener);
+    }
+
+    /**
+     * The publication of a Docker image scheduled before the deployment of the stacks using it.
+     */
+    private static class ScheduledImage {
+
+        private final CompletableFuture<Void> publication;
+        private final Set<String> stackNames;
+
+        private ScheduledImage(CompletableFuture<Void> publication, Set<String> stackNames) {
+            this.publication = publication;
+            this.stackNames = stackNames;
+        }
+
+        public CompletableFuture<Void> getPublication() {
+            return publication;
+        }
+
+        /**
+         * Returns the names of the stacks using the image that haven't been skipped.
+         */
+        public Set<String> getStackNames() {
+            return stackNames;
+        }
+
+    }
+
+    private static class PublishingTask {
+
+        private final String name;
+        private final String destination;
+        private final String key;
+        private final Supplier<CompletableFuture<Void>> publication;
+
+        private PublishingTask(String name, String destination, String key, Supplier<CompletableFuture<Void>> publication) {
+            this.name = name;
+            this.destination = destination;
+            this.key = key;
+            this.publication = publication;
         }
-        return completedStack;
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the name of the bucket or repository the asset is published to.
+         */
+        public String getDestination() {
+            return destination;
+        }
+
+        /**
+         * Returns the object key or image tag of the published asset.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the function starting the publication of the asset.
+         */
+        public Supplier<CompletableFuture<Void>> getPublication() {
+            return publication;
+        }
+
+        public static PublishingTask of(String name, String destination, String key, Supplier<CompletableFuture<Void>> publication) {
+            return new PublishingTask(name, destination, key, publication);
+        }
+
     }
 
 }
@@ -0,0 +1,219 @@
+package io.linguarobot.aws.cdk.maven;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Deploys stacks respecting the dependencies between them. A stack is deployed as soon as all the stacks it depends on
+ * have been deployed, which allows the stacks that don't depend on each other to be deployed concurrently.
+ *
+ * If the deployment of a stack fails, the stacks depending on it (directly or transitively) are skipped, while the
+ * deployment of the rest of the stacks continues.
+ */
+public class StackDeploymentScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StackDeploymentScheduler.class);
+
+    private final int concurrency;
+
+    /**
+     * @param concurrency the maximum number of stacks that can be deployed at the same time
+     */
+    public StackDeploymentScheduler(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The deployment concurrency must be greater than zero");
+        }
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Deploys the given stacks using a non-blocking deployment: no thread is occupied by a stack while its deployment
+     * is in progress, the calling thread only awaits until all the deployments are completed. The dependencies on the
+     * stacks that are not in the given list are considered to be satisfied.
+     *
+     * @param stacks the stacks to deploy sorted in the deployment order, i.e. a stack must be preceded by all the
+     *               stacks it depends on
+     * @param deployment starts the deployment of a single stack, the returned future is completed once the stack is
+     *                   deployed
+     * @throws CdkPluginException if the deployment of at least one stack has failed
+     */
+    public void deployAsync(List<StackDefinition> stacks, Function<StackDefinition, CompletableFuture<?>> deployment) {
+        deployAsync(stacks, deployment, stack -> {});
+    }
+
+    /**
+     * Deploys the given stacks using a non-blocking deployment, notifying the listener about the stacks that are
+     * skipped as soon as it becomes known that some of the stacks they depend on couldn't be deployed.
+     *
+     * @param stacks the stacks to deploy sorted in the deployment order, i.e. a stack must be preceded by all the
+     *               stacks it depends on
+     * @param deployment starts the deployment of a single stack, the returned future is completed once the stack is
+     *                   deployed
+     * @param skipListener the listener of the skipped stacks
+     * @throws CdkPluginException if the deployment of at least one stack has failed
+     */
+    public void deployAsync(List<StackDefinition> stacks,
+                            Function<StackDefinition, CompletableFuture<?>> deployment,
+                            Consumer<StackDefinition> skipListener) {
+        if (stacks.isEmpty()) {
+            return;
+        }
+
+        DeploymentQueue queue = new DeploymentQueue(concurrency);
+        Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<Void>> deployments = new LinkedHashMap<>();
+        for (StackDefinition stack : stacks) {
+            CompletableFuture<?>[] dependencies = stack.getDependencies().stream()
+                    .map(deployments::get)
+                    .filter(Objects::nonNull)
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture<Void> dependencyDeployments = CompletableFuture.allOf(dependencies);
+            dependencyDeployments.whenComplete((r, e) -> {
+                if (e != null) {
+                    notifySkipped(stack, skipListener);
+                }
+            });
+            CompletableFuture<Void> stackDeployment = dependencyDeployments
+                    .thenCompose(r -> queue.submit(() -> deploy(stack, deployment, failures)));
+            deployments.put(stack.getStackName(), stackDeployment);
+        }
+
+        CompletableFuture.allOf(deployments.values().toArray(new CompletableFuture[0]))
+                .handle((r, e) -> null)
+                .join();
+
+        List<String> skippedStacks = deployments.entrySet().stream()
+                .filter(stackDeployment -> stackDeployment.getValue().isCompletedExceptionally())
+                .map(Map.Entry::getKey)
+                .filter(stackName -> !failures.containsKey(stackName))
+                .collect(Collectors.toList());
+        if (!skippedStacks.isEmpty()) {
+            logger.warn("The deployment of the following stacks has been skipped as some of the stacks they depend on " +
+                    "couldn't be deployed: {}", String.join(", ", skippedStacks));
+        }
+
+        if (failures.size() == 1) {
+            throw failures.values().iterator().next();
+        }
+        if (!failures.isEmpty()) {
+            List<String> failedStacks = deployments.keySet().stream()
+                    .filter(failures::containsKey)
+                    .collect(Collectors.toList());
+            StringBuilder errorMessage = new StringBuilder("The deployment of the following stacks has failed: ")
+                    .append(String.join(", ", failedStacks));
+            failedStacks.forEach(stackName -> errorMessage.append(System.lineSeparator())
+                    .append(" - ")
+                    .append(failures.get(stackName).getMessage()));
+            CdkPluginException exception = new CdkPluginException(errorMessage.toString());
+            failedStacks.forEach(stackName -> exception.addSuppressed(failures.get(stackName)));
+            throw exception;
+        }
+    }
+
+    private void notifySkipped(StackDefinition stack, Consumer<StackDefinition> skipListener) {
+        try {
+            skipListener.accept(stack);
+        } catch (RuntimeException e) {
+            logger.debug("An error occurred while notifying about the skipped stack '{}'", stack.getStackName(), e);
+        }
+    }
+
+    private CompletableFuture<Void> deploy(StackDefinition stack,
+                                           Function<StackDefinition, CompletableFuture<?>> deployment,
+                                           Map<String, RuntimeException> failures) {
+        CompletableFuture<?> stackDeployment;
+        try {
+            stackDeployment = deployment.apply(stack);
+        } catch (RuntimeException e) {
+            stackDeployment = new CompletableFuture<>();
+            stackDeployment.completeExceptionally(e);
+        }
+
+        return stackDeployment.handle((r, e) -> {
+            if (e == null) {
+                return null;
+            }
+
+            Throwable cause = AsyncStacks.unwrap(e);
+            RuntimeException failure = cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new CdkPluginException(cause.getMessage(), cause);
+            logger.error("The deployment of the stack '{}' has failed: {}", stack.getStackName(), failure.getMessage());
+            failures.put(stack.getStackName(), failure);
+            throw AsyncStacks.propagate(failure);
+        });
+    }
+
+    /**
+     * Limits the number of deployments in progress. The deployments exceeding the limit are started in the order
+     * they have been submitted once the deployments in progress are completed.
+     */
+    private static class DeploymentQueue {
+
+        private final int concurrency;
+        private final Queue<Runnable> pending;
+
+        private int running;
+
+        private DeploymentQueue(int concurrency) {
+            this.concurrency = concurrency;
+            this.pending = new ArrayDeque<>();
+        }
+
+        public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> deployment) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Runnable start = () -> deployment.get().whenComplete((r, e) -> {
+                release();
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(r);
+                }
+            });
+
+            boolean started;
+            synchronized (this) {
+                started = running < concurrency;
+                if (started) {
+                    running++;
+                } else {
+                    pending.add(start);
+                }
+            }
+            if (started) {
+                start.run();
+            }
+
+            return result;
+        }
+
+        private void release() {
+            Runnable next;
+            synchronized (this) {
+                next = pending.poll();
+                if (next == null) {
+                    running--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the blocking steps of the stack deployments (for example, reading, fingerprinting and writing the
+ * templates), which mustn't run on the threads completing the AWS SDK futures. The steps have a pool of their own, so
+ * that the preparation of a stack doesn't wait for the asset uploads of the other stacks.
+ */
+public class StackPreparationExecutor implements Executor, AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param concurrency the maximum number of stacks prepared at the same time
+     */
+    public StackPreparationExecutor(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The stack preparation concurrency must be greater than zero");
+        }
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("cdk-stack-preparation-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,269 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cloudformation.CloudFormationAsyncClient;
+import software.amazon.awssdk.services.cloudformation.model.CloudFormationException;
+import software.amazon.awssdk.services.cloudformation.model.ListStacksRequest;
+import software.amazon.awssdk.services.cloudformation.model.Stack;
+import software.amazon.awssdk.services.cloudformation.model.StackEvent;
+import software.amazon.awssdk.services.cloudformation.model.StackStatus;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Awaits the completion of the stacks in an environment. All the stacks being awaited are refreshed together: if more
+ * than one stack is in progress, a single ListStacks request (filtered by the in-progress statuses) tells which of
+ * them have changed their status, and only the stacks that have left the in-progress state are described one by one.
+ *
+ * The polling is adaptive: it starts fast, backs off while none of the stacks changes and speeds up again when
+ * something happens. The requests are non-blocking: the poller thread only schedules the polls, while the stacks are
+ * refreshed concurrently by the client.
+ *
+ * If the ListStacks request is denied, the stacks are described one by one. If the polls keep failing (e.g. the
+ * network is unavailable), the awaiting of all the stacks fails after a number of consecutive failed polls.
+ */
+public class StackStatusPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(StackStatusPoller.class);
+
+    private static final Duration MIN_POLLING_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_POLLING_DELAY = Duration.ofSeconds(15);
+    private static final int MAX_CONSECUTIVE_FAILURES = 10;
+    private static final List<StackStatus> IN_PROGRESS_STATUSES = Stream.of(StackStatus.values())
+            .filter(status -> status.toString().endsWith("_IN_PROGRESS"))
+            .collect(Collectors.toList());
+
+    private final CloudFormationAsyncClient client;
+    private final ScheduledThreadPoolExecutor executor;
+    private final PollingBackoff backoff;
+    private final Map<String, AwaitedStack> stacks;
+    private final Duration minPollingDelay;
+    private final int maxConsecutiveFailures;
+
+    private boolean polling;
+    private ScheduledFuture<?> nextPoll;
+    private int consecutiveFailures;
+    private volatile boolean listStacksDenied;
+
+    public StackStatusPoller(CloudFormationAsyncClient client) {
+        this(client, MIN_POLLING_DELAY, MAX_POLLING_DELAY, MAX_CONSECUTIVE_FAILURES);
+    }
+
+    StackStatusPoller(CloudFormationAsyncClient client,
+                      Duration minPollingDelay,
+                      Duration maxPollingDelay,
+                      int maxConsecutiveFailures) {
+        this.client = client;
+        this.executor = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("cdk-stack-poller-%d").setDaemon(true).build());
+        this.executor.setKeepAliveTime(1, TimeUnit.MINUTES);
+        this.executor.allowCoreThreadTimeOut(true);
+        this.backoff = new PollingBackoff(minPollingDelay, maxPollingDelay);
+        this.stacks = new ConcurrentHashMap<>();
+        this.minPollingDelay = minPollingDelay;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+    /**
+     * Awaits until the stack reaches a stable state.
+     *
+     * @param stack the stack to await
+     * @param eventListener the listener of the stack events or {@code null}
+     * @return the stack in a stable state
+     */
+    public CompletableFuture<Stack> awaitCompletion(Stack stack, @Nullable Consumer<StackEvent> eventListener) {
+        if (Stacks.isCompleted(stack) && eventListener == null) {
+            return CompletableFuture.completedFuture(stack);
+        }
+
+        Stacks.StackEventListener stackEventListener = eventListener != null
+                ? new Stacks.StackEventListener(eventListener, Stacks.getOperationStartTime(stack))
+                : null;
+        AwaitedStack awaitedStack = stacks.computeIfAbsent(stack.stackId(), id -> new AwaitedStack(stack, stackEventListener));
+        synchronized (this) {
+            if (!polling) {
+                polling = true;
+                executor.execute(this::poll);
+            } else if (nextPoll != null && nextPoll.getDelay(TimeUnit.MILLISECONDS) > minPollingDelay.toMillis()
+                    && nextPoll.cancel(false)) {
+                // the polling has backed off, the new stack shouldn't wait for so long
+                nextPoll = executor.schedule(this::poll, minPollingDelay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        return awaitedStack.getFuture();
+    }
+
+    private void poll() {
+        List<AwaitedStack> awaitedStacks = new ArrayList<>(stacks.values());
+        CompletableFuture<Map<String, StackStatus>> inProgressStacks = awaitedStacks.size() > 1 && !listStacksDenied
+                ? listInProgressStacks()
+                : CompletableFuture.completedFuture(null);
+        inProgressStacks
+                .thenCompose(statuses -> {
+                    List<CompletableFuture<Boolean>> refreshes = awaitedStacks.stream()
+                            .map(awaitedStack -> refresh(awaitedStack, statuses))
+                            .collect(Collectors.toList());
+                    return CompletableFuture.allOf(refreshes.toArray(new CompletableFuture[0]))
+                            .thenApply(r -> refreshes.stream().anyMatch(CompletableFuture::join));
+                })
+                .whenComplete((active, e) -> {
+                    synchronized (this) {
+                        if (e == null) {
+                            consecutiveFailures = 0;
+                        } else if (++consecutiveFailures < maxConsecutiveFailures) {
+                            logger.debug("An error occurred while polling the stack statuses", e);
+                        } else {
+                            Throwable cause = AsyncStacks.unwrap(e);
+                            logger.warn("Unable to poll the stack statuses, {} consecutive polls have failed: {}",
+                                    consecutiveFailures, cause.getMessage());
+                            consecutiveFailures = 0;
+                            awaitedStacks.forEach(awaitedStack -> {
+                                stacks.remove(awaitedStack.getStack().stackId());
+                                awaitedStack.getFuture().completeExceptionally(cause);
+                            });
+                        }
+
+                        if (stacks.isEmpty()) {
+                            polling = false;
+                            nextPoll = null;
+                        } else {
+                            Duration delay = backoff.next(active != null && active);
+                            nextPoll = executor.schedule(this::poll, delay.toMillis(), TimeUnit.MILLISECONDS);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Refreshes the status of the stack, completing its future if the stack has reached a stable state.
+     *
+     * @param inProgressStacks the statuses of the stacks that are in progress or {@code null} if unknown
+     * @return {@code true} if the status of the stack has changed or new events have appeared
+     */
+    private CompletableFuture<Boolean> refresh(AwaitedStack awaitedStack, @Nullable Map<String, StackStatus> inProgressStacks) {
+        String stackId = awaitedStack.getStack().stackId();
+        StackStatus previousStatus = awaitedStack.getStatus();
+        StackStatus status = inProgressStacks != null ? inProgressStacks.get(stackId) : null;
+        CompletableFuture<?> stackRefresh;
+        if (status != null) {
+            awaitedStack.setStatus(status);
+            stackRefresh = CompletableFuture.completedFuture(null);
+        } else {
+            stackRefresh = AsyncStacks.getStack(client, stackId).thenAccept(awaitedStack::setStack);
+        }
+
+        return stackRefresh
+                .thenCompose(r -> awaitedStack.getEventListener() != null
+                        ? AsyncStacks.consumeEvents(client, stackId, awaitedStack.getEventListener())
+                        : CompletableFuture.completedFuture(0))
+                .thenApply(newEvents -> {
+                    if (status == null && Stacks.isCompleted(awaitedStack.getStack())) {
+                        stacks.remove(stackId);
+                        awaitedStack.getFuture().complete(awaitedStack.getStack());
+                    }
+
+                    return newEvents > 0 || awaitedStack.getStatus() != previousStatus;
+                })
+                .exceptionally(e -> {
+                    Throwable cause = AsyncStacks.unwrap(e);
+                    if (!(cause instanceof CloudFormationException)) {
+                        throw AsyncStacks.propagate(e);
+                    }
+                    stacks.remove(stackId);
+                    awaitedStack.getFuture().completeExceptionally(cause);
+                    return true;
+                });
+    }
+
+    private CompletableFuture<Map<String, StackStatus>> listInProgressStacks() {
+        ListStacksRequest request = ListStacksRequest.builder()
+                .stackStatusFilter(IN_PROGRESS_STATUSES)
+                .build();
+        Map<String, StackStatus> statuses = new ConcurrentHashMap<>();
+        return client.listStacksPaginator(request).stackSummaries()
+                .subscribe(summary -> statuses.put(summary.stackId(), summary.stackStatus()))
+                .<Map<String, StackStatus>>thenApply(r -> Collections.unmodifiableMap(statuses))
+                .exceptionally(e -> {
+                    Throwable cause = AsyncStacks.unwrap(e);
+                    if (!isAccessDenied(cause)) {
+                        throw AsyncStacks.propagate(e);
+                    }
+                    // the stacks can still be described one by one
+                    listStacksDenied = true;
+                    logger.warn("The stacks can't be listed, the stack statuses will be polled one by one: {}",
+                            cause.getMessage());
+                    return null;
+                });
+    }
+
+    private static boolean isAccessDenied(Throwable e) {
+        if (!(e instanceof CloudFormationException)) {
+            return false;
+        }
+
+        CloudFormationException exception = (CloudFormationException) e;
+        AwsErrorDetails errorDetails = exception.awsErrorDetails();
+        String errorCode = errorDetails != null ? errorDetails.errorCode() : null;
+        return exception.statusCode() == 403 || "AccessDenied".equals(errorCode);
+    }
+
+    private static class AwaitedStack {
+
+        private final CompletableFuture<Stack> future;
+        private final Stacks.StackEventListener eventListener;
+
+        private Stack stack;
+        private StackStatus status;
+
+        private AwaitedStack(Stack stack, @Nullable Stacks.StackEventListener eventListener) {
+            this.future = new CompletableFuture<>();
+            this.eventListener = eventListener;
+            this.stack = stack;
+            this.status = stack.stackStatus();
+        }
+
+        public CompletableFuture<Stack> getFuture() {
+            return future;
+        }
+
+        @Nullable
+        public Stacks.StackEventListener getEventListener() {
+            return eventListener;
+        }
+
+        public Stack getStack() {
+            return stack;
+        }
+
+        public void setStack(Stack stack) {
+            this.stack = stack;
+            this.status = stack.stackStatus();
+        }
+
+        public StackStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(StackStatus status) {
+            this.status = status;
+        }
+    }
+
+}
@@ -6,18 +6,18 @@ import software.amazon.awssdk.services.cloudformation.model.*;
 
 import javax.annotation.Nullable;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class Stacks {
 
-    private static final ScheduledExecutorService SCHEDULER = new ScheduledThreadPoolExecutor(0);
+    private static final Duration MIN_POLLING_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_POLLING_DELAY = Duration.ofSeconds(15);
 
-    private static final Capability[] CAPABILITIES =
+    static final Capability[] CAPABILITIES =
             new Capability[]{Capability.CAPABILITY_IAM, Capability.CAPABILITY_NAMED_IAM, Capability.CAPABILITY_AUTO_EXPAND};
 
     public static Optional<Stack> findStack(CloudFormationClient client, String stackName) {
@@ -84,7 +84,7 @@ public class Stacks {
         return getStack(client, response.stackId());
     }
 
-    private static List<Tag> buildTags(Map<String, String> tags) {
+    static List<Tag> buildTags(Map<String, String> tags) {
         return tags.entrySet().stream()
                 .map(tag -> Tag.builder()
                         .key(tag.getKey())
@@ -93,7 +93,7 @@ public class Stacks {
                 .collect(Collectors.toList());
     }
 
-    private static List<Parameter> buildParameters(Map<String, ParameterValue> parameters) {
+    static List<Parameter> buildParameters(Map<String, ParameterValue> parameters) {
         return parameters.entrySet().stream()
                 .map(parameter -> Parameter.builder()
                         .parameterKey(parameter.getKey())
@@ -141,67 +141,55 @@ public class Stacks {
     }
 
     public static Stack awaitCompletion(CloudFormationClient client, Stack stack) {
-        return awaitCompletion(client, stack, ForkJoinPool.commonPool(), null).join();
+        return awaitCompletion(client, stack, (StackEventListener) null);
     }
 
     public static Stack awaitCompletion(CloudFormationClient client, Stack stack, @Nullable Consumer<StackEvent> eventListener) {
-        StackEventListener stackEventListener = eventListener != null ? new StackEventListener(eventListener) : null;
-        return awaitCompletion(client, stack, ForkJoinPool.commonPool(), stackEventListener).join();
+        StackEventListener stackEventListener = eventListener != null
+                ? new StackEventListener(eventListener, getOperationStartTime(stack))
+                : null;
+        return awaitCompletion(client, stack, stackEventListener);
     }
 
-    private static CompletableFuture<Stack> awaitCompletion(CloudFormationClient client,
-                                                            Stack initialStack,
-                                                            Executor executor,
-                                                            @Nullable StackEventListener eventListener) {
-        CompletableFuture<Stack> stackFuture;
-        if (eventListener != null) {
-            stackFuture = CompletableFuture.runAsync(() -> consumeEvents(client, initialStack.stackId(), eventListener), executor)
-                    .thenCompose(r -> CompletableFuture.completedFuture(initialStack));
-        } else {
-            stackFuture = CompletableFuture.completedFuture(initialStack);
-        }
-
-        return stackFuture.thenCompose(stack -> {
+    /**
+     * Polls the stack until it reaches a stable state. The polling starts fast and backs off (with jitter) while
+     * nothing happens with the stack. Once the stack status changes or new events appear, the polling speeds up again.
+     * The stack is polled on the calling thread, use {@link StackStatusPoller} to await the stacks without blocking.
+     */
+    private static Stack awaitCompletion(CloudFormationClient client,
+                                         Stack initialStack,
+                                         @Nullable StackEventListener eventListener) {
+        PollingBackoff backoff = new PollingBackoff(MIN_POLLING_DELAY, MAX_POLLING_DELAY);
+        Stack stack = initialStack;
+        StackStatus previousStatus = null;
+        while (true) {
+            if (previousStatus != null) {
+                stack = getStack(client, stack.stackId());
+            }
+            int newEvents = eventListener != null ? consumeEvents(client, stack.stackId(), eventListener) : 0;
             if (isCompleted(stack)) {
-                return CompletableFuture.completedFuture(stack);
+                return stack;
             }
 
-            Supplier<Stack> statusRequest = () -> {
-                Stack nextStack = getStack(client, stack.stackId());
-                if (eventListener != null) {
-                    consumeEvents(client, nextStack.stackId(), eventListener);
-                }
-                return nextStack;
-            };
-
-            return awaitCompletion(statusRequest, Duration.ZERO, Duration.ofSeconds(5), executor);
-        });
-    }
-
-    private static CompletableFuture<Stack> awaitCompletion(Supplier<Stack> request,
-                                                            Duration initialDelay,
-                                                            Duration period,
-                                                            Executor executor) {
-        if (initialDelay.isNegative() || period.isNegative()) {
-            throw new IllegalArgumentException("The initial delay and period must be equal or greater than zero");
+            Duration delay = backoff.next(newEvents > 0 || stack.stackStatus() != previousStatus);
+            previousStatus = stack.stackStatus();
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CdkPluginException("Interrupted while waiting for the stack '" + stack.stackName() +
+                        "' to reach stable state", e);
+            }
         }
-
-        Executor effectiveExecutor = initialDelay.isZero() ? executor : delayedExecutor(executor, initialDelay);
-        return CompletableFuture.supplyAsync(request, effectiveExecutor)
-                .thenCompose(stack -> {
-                    if (isCompleted(stack)) {
-                        return CompletableFuture.completedFuture(stack);
-                    }
-
-                    return awaitCompletion(request, period, period, executor);
-                });
-    }
-
-    private static Executor delayedExecutor(Executor executor, Duration delay) {
-        return command -> SCHEDULER.schedule(() -> executor.execute(command), delay.toNanos(), TimeUnit.NANOSECONDS);
     }
 
-    private static void consumeEvents(CloudFormationClient client, String stackId, StackEventListener eventListener) {
+    /**
+     * Passes the new events of the stack to the listener in chronological order. The events are paged from the most
+     * recent one until the last event seen by the listener (or the start of the operation) is reached.
+     *
+     * @return the number of new events
+     */
+    static int consumeEvents(CloudFormationClient client, String stackId, StackEventListener eventListener) {
         Deque<StackEvent> events = new ArrayDeque<>();
         String token = null;
         do {
@@ -222,38 +210,52 @@ public class Stacks {
         } while (token != null);
 
         events.descendingIterator().forEachRemaining(eventListener::onEvent);
+        return events.size();
+    }
+
+    /**
+     * Returns the time when the current (or the last) operation on the stack has been started.
+     */
+    @Nullable
+    static Instant getOperationStartTime(Stack stack) {
+        return Stream.of(stack.creationTime(), stack.lastUpdatedTime(), stack.deletionTime())
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
     }
 
-    private static Stack getStack(CloudFormationClient client, String stackName) {
+    static Stack getStack(CloudFormationClient client, String stackName) {
         DescribeStacksRequest request = DescribeStacksRequest.builder()
                 .stackName(stackName)
                 .build();
         return client.describeStacks(request).stacks().get(0);
     }
 
-    private static class StackEventListener {
+    static class StackEventListener {
 
         private final Consumer<StackEvent> consumer;
-        private final Set<String> consumed;
+        private final Instant startTime;
 
-        public StackEventListener(Consumer<StackEvent> consumer) {
+        private String lastEventId;
+
+        StackEventListener(Consumer<StackEvent> consumer, @Nullable Instant startTime) {
             this.consumer = consumer;
-            this.consumed = new HashSet<>();
+            this.startTime = startTime;
         }
 
-        public boolean onEvent(StackEvent event) {
-            if (isConsumed(event)) {
-                return false;
-            }
-
-            consumed.add(event.eventId());
+        public void onEvent(StackEvent event) {
+            lastEventId = event.eventId();
             consumer.accept(event);
-            return true;
         }
 
+        /**
+         * Returns {@code true} if the event has been already consumed or it precedes the operation the listener
+         * was created for.
+         */
         public boolean isConsumed(StackEvent event) {
-            return consumed.contains(event.eventId());
+            return event.eventId().equals(lastEventId) || startTime != null && event.timestamp().isBefore(startTime);
         }
 
     }
+
 }
@@ -4,6 +4,10 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import io.linguarobot.aws.cdk.CloudManifest;
 import io.linguarobot.aws.cdk.maven.context.*;
 import io.linguarobot.aws.cdk.maven.node.*;
@@ -25,6 +29,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.awscore.client.builder.AwsSyncClientBuilder;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 import software.amazon.awssdk.services.route53.Route53Client;
@@ -36,8 +43,18 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -63,6 +80,17 @@ public class SynthMojo extends AbstractCdkMojo implements ContextEnabled {
     private static final String DEFAULT_REGION_VARIABLE_NAME = "CDK_DEFAULT_REGION";
     private static final String CONTEXT_VARIABLE_NAME = "CDK_CONTEXT_JSON";
     private static final String PATH_VARIABLE_NAME = "PATH";
+    private static final String CDK_VARIABLE_PREFIX = "CDK_";
+    private static final String FINGERPRINT_FILE_NAME = "synth.fingerprint";
+    private static final String JSII_ENGINE_CLASS_NAME = "software.amazon.jsii.JsiiEngine";
+    private static final Path CONTEXT_CACHE_DIRECTORY = Paths.get("io", "linguarobot", "aws-cdk-context-cache");
+    private static final Map<String, Duration> DEFAULT_CONTEXT_CACHE_TTLS = ImmutableMap.<String, Duration>builder()
+            .put(AmiContextProvider.KEY, Duration.ofHours(1))
+            .put(SsmContextProvider.KEY, Duration.ofHours(1))
+            .put(VpcNetworkContextProvider.KEY, Duration.ofDays(1))
+            .put(HostedZoneContextProvider.KEY, Duration.ofDays(1))
+            .put(AvailabilityZonesContextProvider.KEY, Duration.ofDays(7))
+            .build();
 
     @Component
     private ToolchainManager toolchainManager;
@@ -100,41 +128,160 @@ public class SynthMojo extends AbstractCdkMojo implements ContextEnabled {
     @Parameter(property = "aws.cdk.arguments")
     private List<String> arguments;
 
+    /**
+     * Enables/disables incremental synthesis. If enabled, the synthesis is skipped when none of its inputs (compiled
+     * classes, resources, dependencies, {@code cdk.context.json}, the application arguments and {@code CDK_*}
+     * environment variables) have changed since the cloud assembly was synthesized and the cached context values
+     * used by the synthesis haven't expired. The synthesis is never skipped if it has looked up context values that
+     * aren't cached.
+     */
+    @Parameter(property = "aws.cdk.synth.incremental", defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * Defines how the application is executed: {@code FORK} executes it in a new JVM, while {@code IN_PROCESS}
+     * executes it within the Maven JVM saving the JVM startup and warm-up time. In the latter case, the application
+     * must not call {@code System.exit} and, starting from Java 16, Maven must be run with
+     * {@code --add-opens java.base/java.util=ALL-UNNAMED --add-opens java.base/java.lang=ALL-UNNAMED} (otherwise the
+     * application is executed in a new JVM). As the in-process synthesis overrides the environment variables of the
+     * whole Maven JVM, it's not used in parallel builds ({@code -T}), where the application is executed in a new JVM.
+     * {@code DAEMON} executes the application in a long-lived JVM shared by the syntheses of the project, the
+     * application must not call {@code System.exit} either. If the daemon cannot be started or doesn't respond in
+     * time, the application is executed in a new JVM.
+     */
+    @Parameter(property = "aws.cdk.synth.mode", defaultValue = "FORK")
+    private SynthesisMode synthesisMode;
+
+    /**
+     * The time (in seconds) after which an idle synthesis daemon exits.
+     */
+    @Parameter(property = "aws.cdk.synth.daemon.idle.timeout", defaultValue = "1800")
+    private int daemonIdleTimeout;
+
+    /**
+     * The maximum number of missing context values resolved at the same time.
+     */
+    @Parameter(property = "aws.cdk.context.concurrency", defaultValue = "8")
+    private int contextConcurrency;
+
+    /**
+     * The maximum number of missing context values resolved by the same context provider at the same time.
+     */
+    @Parameter(property = "aws.cdk.context.provider.concurrency", defaultValue = "4")
+    private int contextProviderConcurrency;
+
+    /**
+     * Enables/disables the user-level cache of the context values. If enabled, the context values are stored in the
+     * local Maven repository and reused by all the projects until they expire.
+     */
+    @Parameter(property = "aws.cdk.context.cache", defaultValue = "true")
+    private boolean contextCache;
+
+    /**
+     * Forces the cached context values to be resolved again. The cloud assembly is synthesized even if none of its
+     * inputs have changed.
+     */
+    @Parameter(property = "aws.cdk.context.cache.refresh", defaultValue = "false")
+    private boolean contextCacheRefresh;
+
+    /**
+     * The time (in seconds) the context values are cached for by the context provider key, overriding the default
+     * ones. The values of a provider aren't cached if the time is {@code 0}.
+     */
+    @Parameter
+    private Map<String, String> contextCacheTtls;
+
     private ProcessRunner processRunner;
-    private Map<String, ContextProvider> contextProviders;
+    private MissingContextResolver contextResolver;
+    private SynthesisDaemonClient daemonClient;
+    private boolean inProcessUnavailable;
+    private boolean daemonUnavailable;
+    private List<CachingContextProvider> cachedContextProviders = Collections.emptyList();
+    private Set<String> uncachedContextProviders = Collections.emptySet();
 
     @Override
     public void execute(Path cloudAssemblyDirectory, EnvironmentResolver environmentResolver) {
         this.processRunner = new DefaultProcessRunner(project.getBasedir());
-        this.contextProviders = initContextProviders(environmentResolver);
-        synthesize(app,arguments != null ? arguments : Collections.emptyList(), cloudAssemblyDirectory, environmentResolver);
+        // the clients are shared by all the context lookups and use the same connection pool
+        try (SdkHttpClient httpClient = ApacheHttpClient.builder().build();
+             AwsClientProvider awsClientProvider = buildAwsClientProvider(environmentResolver, httpClient)) {
+            this.contextResolver = new MissingContextResolver(initContextProviders(awsClientProvider),
+                    contextConcurrency, contextProviderConcurrency);
+            synthesize(app,arguments != null ? arguments : Collections.emptyList(), cloudAssemblyDirectory, environmentResolver);
+        }
     }
 
-    private Map<String, ContextProvider> initContextProviders(EnvironmentResolver environmentResolver) {
-        AwsClientProvider awsClientProvider = new AwsClientProviderBuilder()
-                .withClientFactory(Ec2Client.class, env -> buildClient(Ec2Client.builder(), environmentResolver.resolve(env)))
-                .withClientFactory(SsmClient.class, env -> buildClient(SsmClient.builder(), environmentResolver.resolve(env)))
+    private AwsClientProvider buildAwsClientProvider(EnvironmentResolver environmentResolver, SdkHttpClient httpClient) {
+        return new AwsClientProviderBuilder()
+                .withClientFactory(Ec2Client.class, env -> buildClient(Ec2Client.builder(), environmentResolver.resolve(env), httpClient))
+                .withClientFactory(SsmClient.class, env -> buildClient(SsmClient.builder(), environmentResolver.resolve(env), httpClient))
                 .withClientFactory(Route53Client.class, env -> {
                     ResolvedEnvironment resolvedEnvironment = environmentResolver.resolve(env);
                     return Route53Client.builder()
                             .region(Region.AWS_GLOBAL)
                             .credentialsProvider(StaticCredentialsProvider.create(resolvedEnvironment.getCredentials()))
+                            .httpClient(httpClient)
                             .build();
                 })
                 .build();
+    }
 
+    private Map<String, ContextProvider> initContextProviders(AwsClientProvider awsClientProvider) {
         Map<String, ContextProvider> contextProviders = new HashMap<>();
         contextProviders.put(AvailabilityZonesContextProvider.KEY, new AvailabilityZonesContextProvider(awsClientProvider));
         contextProviders.put(SsmContextProvider.KEY, new SsmContextProvider(awsClientProvider));
         contextProviders.put(HostedZoneContextProvider.KEY, new HostedZoneContextProvider(awsClientProvider));
         contextProviders.put(VpcNetworkContextProvider.KEY, new VpcNetworkContextProvider(awsClientProvider));
         contextProviders.put(AmiContextProvider.KEY, new AmiContextProvider(awsClientProvider));
-        return contextProviders;
+        if (!contextCache) {
+            this.uncachedContextProviders = new HashSet<>(contextProviders.keySet());
+            return contextProviders;
+        }
+
+        ContextCache cache = new ContextCache(localRepositoryDirectory.toPath().resolve(CONTEXT_CACHE_DIRECTORY));
+        Map<String, ContextProvider> cachingContextProviders = new HashMap<>();
+        List<CachingContextProvider> cachedContextProviders = new ArrayList<>();
+        Set<String> uncachedContextProviders = new HashSet<>();
+        contextProviders.forEach((key, contextProvider) -> {
+            Duration ttl = getContextCacheTtl(key);
+            if (ttl.isZero()) {
+                cachingContextProviders.put(key, contextProvider);
+                uncachedContextProviders.add(key);
+            } else {
+                CachingContextProvider cachingContextProvider = new CachingContextProvider(key, contextProvider, cache, ttl, contextCacheRefresh);
+                cachingContextProviders.put(key, cachingContextProvider);
+                cachedContextProviders.add(cachingContextProvider);
+            }
+        });
+        this.cachedContextProviders = cachedContextProviders;
+        this.uncachedContextProviders = uncachedContextProviders;
+        return cachingContextProviders;
     }
 
-    private <B extends AwsClientBuilder<B, C>, C> C buildClient(B builder, ResolvedEnvironment environment) {
+    private Duration getContextCacheTtl(String providerKey) {
+        String ttl = contextCacheTtls != null ? contextCacheTtls.get(providerKey) : null;
+        if (ttl == null) {
+            return DEFAULT_CONTEXT_CACHE_TTLS.getOrDefault(providerKey, Duration.ZERO);
+        }
+
+        try {
+            long seconds = Long.parseLong(ttl.trim());
+            if (seconds < 0) {
+                throw new NumberFormatException();
+            }
+            return Duration.ofSeconds(seconds);
+        } catch (NumberFormatException e) {
+            throw new CdkPluginException("The context cache TTL for the '" + providerKey + "' provider must be a " +
+                    "non-negative number of seconds, but was '" + ttl + "'");
+        }
+    }
+
+    private <B extends AwsClientBuilder<B, C> & AwsSyncClientBuilder<B, C>, C> C buildClient(B builder,
+                                                                                             ResolvedEnvironment environment,
+                                                                                             SdkHttpClient httpClient) {
         return builder.region(environment.getRegion())
                 .credentialsProvider(StaticCredentialsProvider.create(environment.getCredentials()))
+                .httpClient(httpClient)
                 .build();
     }
 
@@ -148,6 +295,24 @@ public class SynthMojo extends AbstractCdkMojo implements ContextEnabled {
             environment = new HashMap<>(System.getenv());
         }
 
+        environment.computeIfAbsent(OUTPUT_DIRECTORY_VARIABLE_NAME, v -> outputDirectory.toString());
+        environment.computeIfAbsent(DEFAULT_REGION_VARIABLE_NAME, v -> environmentResolver.getDefaultRegion().id());
+        if (environmentResolver.getDefaultAccount() != null) {
+            environment.computeIfAbsent(DEFAULT_ACCOUNT_VARIABLE_NAME, v -> environmentResolver.getDefaultAccount());
+        }
+
+        JsonObject context = readContext();
+        String fingerprint = incremental ? fingerprint(app, arguments, environment, context) : null;
+        Path fingerprintFile = outputDirectory.resolve(FINGERPRINT_FILE_NAME);
+        if (fingerprint != null) {
+            CloudManifest cloudManifest = findSynthesizedManifest(outputDirectory, fingerprintFile, fingerprint).orElse(null);
+            if (cloudManifest != null) {
+                logger.info("The cloud assembly for the '{}' application is up to date, the synthesis will be skipped", app);
+                return cloudManifest;
+            }
+        }
+        deleteFingerprint(fingerprintFile);
+
         NodeVersion nodeVersion = getInstalledNodeVersion().orElse(null);
         if (nodeVersion == null || nodeVersion.compareTo(MINIMUM_REQUIRED_NODE_VERSION) < 0) {
             if (nodeVersion == null) {
@@ -163,43 +328,16 @@ public class SynthMojo extends AbstractCdkMojo implements ContextEnabled {
                     .collect(Collectors.joining(File.pathSeparator)));
         }
 
-        environment.computeIfAbsent(OUTPUT_DIRECTORY_VARIABLE_NAME, v -> outputDirectory.toString());
-        environment.computeIfAbsent(DEFAULT_REGION_VARIABLE_NAME, v -> environmentResolver.getDefaultRegion().id());
-        if (environmentResolver.getDefaultAccount() != null) {
-            environment.computeIfAbsent(DEFAULT_ACCOUNT_VARIABLE_NAME, v -> environmentResolver.getDefaultAccount());
-        }
-
-        JsonObject context = readContext();
-
         logger.info("Synthesizing the cloud assembly for the '{}' application", app);
         CloudManifest cloudManifest = synthesize(app, arguments, outputDirectory, environment, context);
 
+        // the values looked up by the providers that don't cache them have no expiration time
+        boolean uncachedContextLookups = false;
         while (!cloudManifest.getMissingContexts().isEmpty()) {
+            uncachedContextLookups |= cloudManifest.getMissingContexts().stream()
+                    .anyMatch(missingContext -> uncachedContextProviders.contains(missingContext.getProvider()));
             JsonObjectBuilder contextBuilder = Json.createObjectBuilder(context);
-            cloudManifest.getMissingContexts().forEach(missingContext -> {
-                String provider = missingContext.getProvider();
-                String key = missingContext.getKey();
-
-                ContextProvider contextProvider = contextProviders.get(provider);
-                if (contextProvider == null) {
-                    throw new CdkPluginException("Unable to find a context provider for '" + provider +
-                            "'. Please consider updating the version of the plugin");
-                }
-
-                JsonObject properties = OBJECT_MAPPER.convertValue(missingContext.getProperties(), JsonObject.class);
-                JsonValue contextValue;
-                try {
-                    contextValue = contextProvider.getContextValue(properties);
-                } catch (Exception e) {
-                    throw new CdkPluginException("An error occurred while resolving context value for the " +
-                            "key '" + key + "' using '" + provider + "' provider: " + e.getMessage());
-                }
-                if (contextValue == null) {
-                    throw new CdkPluginException("Unable to resolve context value for the key '" + key +
-                            "' using '" + provider + "' provider");
-                }
-                contextBuilder.add(key, contextValue);
-            });
+            contextResolver.resolve(cloudManifest.getMissingContexts()).forEach(contextBuilder::add);
             context = contextBuilder.build();
             cloudManifest = synthesize(app, arguments, outputDirectory, environment, context);
         }
@@ -214,10 +352,121 @@ public class SynthMojo extends AbstractCdkMojo implements ContextEnabled {
             }
         }
 
+        if (fingerprint != null && uncachedContextLookups) {
+            logger.debug("The cloud assembly has been synthesized with the context values that aren't cached, the " +
+                    "next build will synthesize it again to look them up");
+        } else if (fingerprint != null) {
+            // the assembly must be synthesized again once the cached context values it's been synthesized with expire
+            Instant contextExpiresAt = cachedContextProviders.stream()
+                    .map(CachingContextProvider::getEarliestExpiration)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .min(Comparator.naturalOrder())
+                    .orElse(null);
+            try {
+                new SynthesisFingerprint(fingerprint, contextExpiresAt).write(fingerprintFile);
+            } catch (IOException e) {
+                logger.warn("Unable to write the synthesis fingerprint to {}, the next build will synthesize the " +
+                        "cloud assembly again", fingerprintFile, e);
+            }
+        }
+
         logger.info("The cloud assembly has been successfully synthesized to {}", outputDirectory);
         return cloudManifest;
     }
 
+    /**
+     * Returns the manifest of the cloud assembly in the output directory if the assembly has been synthesized from
+     * the inputs with the given fingerprint and the cached context values it's been synthesized with neither expired
+     * nor must be refreshed.
+     */
+    private Optional<CloudManifest> findSynthesizedManifest(Path outputDirectory, Path fingerprintFile, String fingerprint) {
+        try {
+            SynthesisFingerprint synthesizedFingerprint = SynthesisFingerprint.read(fingerprintFile).orElse(null);
+            if (synthesizedFingerprint == null || !synthesizedFingerprint.isUpToDate(fingerprint, contextCacheRefresh, Instant.now())) {
+                return Optional.empty();
+            }
+            return Optional.of(CloudManifest.create(outputDirectory))
+                    .filter(cloudManifest -> cloudManifest.getMissingContexts().isEmpty());
+        } catch (IOException e) {
+            logger.debug("Unable to read the synthesized cloud assembly from {}", outputDirectory, e);
+            return Optional.empty();
+        }
+    }
+
+    private void deleteFingerprint(Path fingerprintFile) {
+        try {
+            Files.deleteIfExists(fingerprintFile);
+        } catch (IOException e) {
+            throw new CdkPluginException("Unable to delete the synthesis fingerprint " + fingerprintFile, e);
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the synthesis inputs: the application, its arguments, the context, the {@code CDK_*}
+     * environment variables and the classpath. The output directories and resources of the project are hashed by
+     * content, as are the dependencies that can change without changing their version (snapshots and system scoped
+     * artifacts). The rest of the dependencies are identified by their coordinates and file sizes.
+     */
+    private String fingerprint(String app, List<String> arguments, Map<String, String> environment, JsonObject context) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(app, StandardCharsets.UTF_8).putByte((byte) 0);
+        arguments.forEach(argument -> hasher.putByte((byte) 'a').putString(argument, StandardCharsets.UTF_8).putByte((byte) 0));
+        hasher.putByte((byte) 'c').putString(toString(context), StandardCharsets.UTF_8).putByte((byte) 0);
+
+        new TreeMap<>(environment).forEach((name, value) -> {
+            if (name.startsWith(CDK_VARIABLE_PREFIX) && !name.equals(OUTPUT_DIRECTORY_VARIABLE_NAME)) {
+                hasher.putByte((byte) 'e')
+                        .putString(name, StandardCharsets.UTF_8).putByte((byte) 0)
+                        .putString(value, StandardCharsets.UTF_8).putByte((byte) 0);
+            }
+        });
+
+        project.getArtifacts().stream()
+                .sorted(Comparator.comparing(Artifact::getId))
+                .forEach(artifact -> {
+                    hasher.putByte((byte) 'd').putString(artifact.getId(), StandardCharsets.UTF_8).putByte((byte) 0);
+                    File file = artifact.getFile();
+                    if (file != null && (artifact.isSnapshot() || Artifact.SCOPE_SYSTEM.equals(artifact.getScope()) || file.isDirectory())) {
+                        putContent(hasher, file.toPath());
+                    } else if (file != null) {
+                        hasher.putLong(file.length());
+                    }
+                });
+
+        Streams.concat(
+                Stream.of(project.getBuild().getOutputDirectory()),
+                project.getResources().stream().map(FileSet::getDirectory),
+                Stream.of(Synthesizer.class.getProtectionDomain().getCodeSource().getLocation().getFile())
+        ).forEach(path -> {
+            hasher.putByte((byte) 'p').putString(path, StandardCharsets.UTF_8).putByte((byte) 0);
+            putContent(hasher, Paths.get(path));
+        });
+
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Adds the content of the file or all the files in the directory to the hasher.
+     */
+    private void putContent(Hasher hasher, Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                hasher.putString(path.relativize(file).toString(), StandardCharsets.UTF_8).putByte((byte) 0);
+                try (InputStream inputStream = Files.newInputStream(file)) {
+                    ByteStreams.copy(inputStream, Funnels.asOutputStream(hasher));
+                }
+                hasher.putByte((byte) 0);
+            }
+        } catch (IOException e) {
+            throw new CdkPluginException("Unable to compute the synthesis fingerprint of " + path, e);
+        }
+    }
+
     private JsonObject readContext() {
         File contextFile = new File(project.getBasedir(), CDK_CONTEXT_FILE_NAME);
 
@@ -246,18 +495,31 @@ public class SynthMojo extends AbstractCdkMojo implements ContextEnabled {
                     .build();
         }
 
-        int exitCode;
-        List<String> appExecutionCommand = buildAppExecutionCommand(app, arguments);
-        ProcessContext processContext = ProcessContext.builder()
-                .withEnvironment(appEnvironment)
-                .build();
-        try {
-            exitCode = processRunner.run(appExecutionCommand, processContext);
-        } catch (ProcessExecutionException e) {
-            throw new CdkPluginException("The synthesis has failed", e);
+        boolean synthesized = false;
+        if (synthesisMode == SynthesisMode.IN_PROCESS && !inProcessUnavailable) {
+            synthesized = synthesizeInProcess(app, arguments, appEnvironment);
+        } else if (synthesisMode == SynthesisMode.DAEMON && !daemonUnavailable) {
+            synthesized = synthesizeWithDaemon(app, arguments, appEnvironment);
         }
 
-        if (exitCode != 0 || !Files.exists(outputDirectory)) {
+        if (!synthesized) {
+            int exitCode;
+            List<String> appExecutionCommand = buildAppExecutionCommand(app, arguments);
+            ProcessContext processContext = ProcessContext.builder()
+                    .withEnvironment(appEnvironment)
+                    .build();
+            try {
+                exitCode = processRunner.run(appExecutionCommand, processContext);
+            } catch (ProcessExecutionException e) {
+                throw new CdkPluginException("The synthesis has failed", e);
+            }
+
+            if (exitCode != 0) {
+                throw new CdkPluginException("The synthesis has failed: the application has exited with code " + exitCode);
+            }
+        }
+
+        if (!Files.exists(outputDirectory)) {
             throw new CdkPluginException("The synthesis has failed: the output directory doesn't exist");
         }
 
@@ -276,16 +538,135 @@ public class SynthMojo extends AbstractCdkMojo implements ContextEnabled {
         }
     }
 
-    private List<String> buildAppExecutionCommand(String app, List<String> arguments) {
-        String java = Optional.ofNullable(this.toolchainManager.getToolchainFromBuildContext("jdk", this.session))
-                .map(toolchain -> toolchain.findTool("java"))
-                .orElseGet(() -> System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
-        String classpath = Streams.concat(
+    /**
+     * Synthesizes the cloud assembly within the Maven JVM. The application classes are loaded with an isolated class
+     * loader, which is discarded (along with the jsii runtime it has started) after the synthesis. As the environment
+     * variables are shared by the whole JVM, only one in-process synthesis runs at a time and the in-process synthesis
+     * is not used in parallel builds, where other plugins might read the environment at the same time.
+     *
+     * @return {@code false} if the synthesis cannot be performed within the Maven JVM
+     */
+    private boolean synthesizeInProcess(String app, List<String> arguments, Map<String, String> environment) {
+        if (session.isParallel()) {
+            logger.warn("The in-process synthesis overrides the environment variables of the whole Maven JVM and " +
+                    "can't be used in a parallel build, the application will be executed in a new JVM");
+            inProcessUnavailable = true;
+            return false;
+        }
+        if (!Synthesizer.canRunInProcess()) {
+            logger.warn("The environment variables of the Maven JVM cannot be overridden, the application will be " +
+                    "executed in a new JVM. Please add '--add-opens java.base/java.util=ALL-UNNAMED " +
+                    "--add-opens java.base/java.lang=ALL-UNNAMED' to MAVEN_OPTS in order to enable the in-process " +
+                    "synthesis");
+            inProcessUnavailable = true;
+            return false;
+        }
+
+        Map<String, String> environmentOverrides = environment.entrySet().stream()
+                .filter(variable -> !variable.getValue().equals(System.getenv(variable.getKey())))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        URL[] classpath = getAppClasspath().stream()
+                .map(this::toUrl)
+                .toArray(URL[]::new);
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+        synchronized (SynthMojo.class) {
+            URLClassLoader classLoader = new URLClassLoader(classpath, ClassLoader.getSystemClassLoader().getParent());
+            try {
+                currentThread.setContextClassLoader(classLoader);
+                Class<?> synthesizer = classLoader.loadClass(Synthesizer.class.getName());
+                MethodHandles.publicLookup()
+                        .findStatic(synthesizer, "run", MethodType.methodType(void.class, String.class, String[].class, Map.class))
+                        .invoke(app, arguments.toArray(new String[0]), environmentOverrides);
+            } catch (Throwable e) {
+                throw new CdkPluginException("The synthesis has failed", e);
+            } finally {
+                currentThread.setContextClassLoader(contextClassLoader);
+                // otherwise the Node.js process of the jsii runtime would be kept along with the class loader
+                resetJsiiRuntime(classLoader);
+                try {
+                    classLoader.close();
+                } catch (IOException e) {
+                    logger.debug("Unable to close the class loader of the application", e);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Synthesizes the cloud assembly using the synthesis daemon of the project.
+     *
+     * @return {@code false} if the daemon is unavailable
+     */
+    private boolean synthesizeWithDaemon(String app, List<String> arguments, Map<String, String> environment) {
+        List<String> classpath = getAppClasspath();
+        boolean successful;
+        try {
+            successful = getDaemonClient().synthesize(app, arguments, classpath, environment);
+        } catch (CdkPluginException e) {
+            logger.warn("The synthesis daemon is unavailable, the application will be executed in a new JVM", e);
+            daemonUnavailable = true;
+            return false;
+        }
+
+        if (!successful) {
+            throw new CdkPluginException("The synthesis has failed");
+        }
+        return true;
+    }
+
+    /**
+     * Stops the jsii runtime started by the application classes loaded with the given class loader, if any.
+     */
+    private static void resetJsiiRuntime(ClassLoader classLoader) {
+        try {
+            Class<?> jsiiEngine = Class.forName(JSII_ENGINE_CLASS_NAME, false, classLoader);
+            jsiiEngine.getMethod("reset").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.debug("Unable to reset the jsii runtime", e);
+        }
+    }
+
+    private URL toUrl(String path) {
+        try {
+            return new File(path).toURI().toURL();
+        } catch (MalformedURLException e) {
+            throw new CdkPluginException("Invalid classpath element: " + path, e);
+        }
+    }
+
+    private List<String> getAppClasspath() {
+        return Streams.concat(
                 project.getArtifacts().stream().map(Artifact::getFile).map(File::toString),
                 Stream.of(project.getBuild().getOutputDirectory()),
                 project.getResources().stream().map(FileSet::getDirectory),
                 Stream.of(Synthesizer.class.getProtectionDomain().getCodeSource().getLocation().getFile())
-        ).collect(Collectors.joining(File.pathSeparator));
+        ).collect(Collectors.toList());
+    }
+
+    private SynthesisDaemonClient getDaemonClient() {
+        if (daemonClient == null) {
+            Path daemonDirectory = Paths.get(project.getBuild().getDirectory(), "cdk.daemon");
+            String runtimeClasspath = Synthesizer.class.getProtectionDomain().getCodeSource().getLocation().getFile();
+            daemonClient = new SynthesisDaemonClient(daemonDirectory, getJavaExecutable(), runtimeClasspath,
+                    project.getBasedir(), Duration.ofSeconds(daemonIdleTimeout));
+        }
+
+        return daemonClient;
+    }
+
+    private String getJavaExecutable() {
+        return Optional.ofNullable(this.toolchainManager.getToolchainFromBuildContext("jdk", this.session))
+                .map(toolchain -> toolchain.findTool("java"))
+                .orElseGet(() -> System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    }
+
+    private List<String> buildAppExecutionCommand(String app, List<String> arguments) {
+        String java = getJavaExecutable();
+        String classpath = String.join(File.pathSeparator, getAppClasspath());
 
         return Stream.concat(Stream.of(java, "-cp", classpath, Synthesizer.class.getName(), app), arguments.stream())
                 .collect(Collectors.toList());
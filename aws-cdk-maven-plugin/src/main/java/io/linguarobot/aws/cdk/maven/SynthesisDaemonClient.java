@@ -0,0 +1,217 @@
+package io.linguarobot.aws.cdk.maven;
+
+import io.linguarobot.aws.cdk.maven.runtime.SynthesisDaemon;
+import io.linguarobot.aws.cdk.maven.runtime.SynthesisRequest;
+import io.linguarobot.aws.cdk.maven.runtime.SynthesisResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends synthesis requests to the {@link SynthesisDaemon} of the project, starting a new daemon if there's no running
+ * one or the running one doesn't respond in time. The daemon is shared by all the builds of the project until it exits
+ * after being idle.
+ */
+public class SynthesisDaemonClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(SynthesisDaemonClient.class);
+
+    private static final String DAEMON_FILE_NAME = "daemon.properties";
+    private static final String LOG_FILE_NAME = "daemon.log";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofMinutes(10);
+    private static final String JAVA_OPTIONS_VARIABLE_NAME = "JDK_JAVA_OPTIONS";
+    private static final String JAVA_OPTIONS = "--add-opens=java.base/java.util=ALL-UNNAMED " +
+            "--add-opens=java.base/java.lang=ALL-UNNAMED";
+
+    private final Path daemonDirectory;
+    private final String java;
+    private final String runtimeClasspath;
+    private final File workingDirectory;
+    private final Duration idleTimeout;
+
+    /**
+     * @param daemonDirectory the directory where the daemon file and the daemon log are stored
+     * @param java the Java executable the daemon is started with
+     * @param runtimeClasspath the classpath containing the synthesizer runtime
+     * @param workingDirectory the working directory of the daemon
+     * @param idleTimeout the time after which an idle daemon exits
+     */
+    public SynthesisDaemonClient(Path daemonDirectory,
+                                 String java,
+                                 String runtimeClasspath,
+                                 File workingDirectory,
+                                 Duration idleTimeout) {
+        this.daemonDirectory = daemonDirectory;
+        this.java = java;
+        this.runtimeClasspath = runtimeClasspath;
+        this.workingDirectory = workingDirectory;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Synthesizes the cloud assembly using the daemon. The output of the application is written to the standard
+     * output.
+     *
+     * @return {@code true} if the cloud assembly has been successfully synthesized
+     * @throws CdkPluginException if the daemon cannot be started or doesn't respond in time
+     */
+    public boolean synthesize(String app, List<String> arguments, List<String> classpath, Map<String, String> environment) {
+        Path daemonFile = daemonDirectory.resolve(DAEMON_FILE_NAME);
+        SynthesisResponse response = null;
+        DaemonAddress address = readDaemonFile(daemonFile).orElse(null);
+        if (address != null) {
+            try {
+                response = send(address, app, arguments, classpath, environment);
+            } catch (IOException e) {
+                logger.debug("The synthesis daemon isn't available, a new one will be started", e);
+            }
+        }
+
+        if (response == null) {
+            address = startDaemon(daemonFile);
+            try {
+                response = send(address, app, arguments, classpath, environment);
+            } catch (IOException e) {
+                throw new CdkPluginException("Unable to send the synthesis request to the daemon", e);
+            }
+        }
+
+        System.out.print(response.getOutput());
+        System.out.flush();
+        return response.isSuccessful();
+    }
+
+    private SynthesisResponse send(DaemonAddress address,
+                                   String app,
+                                   List<String> arguments,
+                                   List<String> classpath,
+                                   Map<String, String> environment) throws IOException {
+        SynthesisRequest request = new SynthesisRequest(address.getToken(), classpath, app, arguments, environment);
+        try (Socket socket = connect(address.getPort());
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+             DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            request.writeTo(output);
+            return SynthesisResponse.readFrom(input);
+        }
+    }
+
+    private Socket connect(int port) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), (int) CONNECT_TIMEOUT.toMillis());
+            socket.setSoTimeout((int) RESPONSE_TIMEOUT.toMillis());
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return socket;
+    }
+
+    private DaemonAddress startDaemon(Path daemonFile) {
+        logger.info("Starting the synthesis daemon");
+        Path logFile = daemonDirectory.resolve(LOG_FILE_NAME);
+        Process process;
+        try {
+            Files.createDirectories(daemonDirectory);
+            Files.deleteIfExists(daemonFile);
+            ProcessBuilder processBuilder = new ProcessBuilder(java, "-cp", runtimeClasspath,
+                    SynthesisDaemon.class.getName(), daemonFile.toString(), Long.toString(idleTimeout.getSeconds()))
+                    .directory(workingDirectory)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile.toFile()));
+            // Java 9+ only, the environment of the JVM must be modifiable in order to pass the variables to jsii
+            processBuilder.environment().put(JAVA_OPTIONS_VARIABLE_NAME, JAVA_OPTIONS);
+            process = processBuilder.start();
+            process.getOutputStream().close();
+        } catch (IOException e) {
+            throw new CdkPluginException("Unable to start the synthesis daemon", e);
+        }
+
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            Optional<DaemonAddress> address = readDaemonFile(daemonFile);
+            if (address.isPresent()) {
+                return address.get();
+            }
+            if (!process.isAlive()) {
+                break;
+            }
+            try {
+                process.waitFor(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CdkPluginException("Interrupted while waiting for the synthesis daemon to start");
+            }
+        }
+
+        process.destroy();
+        throw new CdkPluginException("The synthesis daemon has failed to start, please check " + logFile + " for details");
+    }
+
+    private Optional<DaemonAddress> readDaemonFile(Path daemonFile) {
+        if (!Files.exists(daemonFile)) {
+            return Optional.empty();
+        }
+
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(daemonFile)) {
+            properties.load(input);
+        } catch (IOException e) {
+            logger.debug("Unable to read the synthesis daemon file {}", daemonFile, e);
+            return Optional.empty();
+        }
+
+        String port = properties.getProperty(SynthesisDaemon.PORT_PROPERTY);
+        String token = properties.getProperty(SynthesisDaemon.TOKEN_PROPERTY);
+        if (port == null || token == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new DaemonAddress(Integer.parseInt(port), token));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static class DaemonAddress {
+
+        private final int port;
+        private final String token;
+
+        private DaemonAddress(int port, String token) {
+            this.port = port;
+            this.token = token;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package io.linguarobot.aws.cdk.maven;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The fingerprint of the synthesis inputs stored along with the synthesized cloud assembly. If the synthesis has used
+ * cached context values, the fingerprint also holds the time when the first of them expires, as the assembly must be
+ * synthesized again with the fresh values after this time even if none of the inputs has changed.
+ */
+public class SynthesisFingerprint {
+
+    private final String value;
+    private final Instant contextExpiresAt;
+
+    public SynthesisFingerprint(String value, @Nullable Instant contextExpiresAt) {
+        this.value = Objects.requireNonNull(value, "The fingerprint value can't be null");
+        this.contextExpiresAt = contextExpiresAt;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Optional<Instant> getContextExpiresAt() {
+        return Optional.ofNullable(contextExpiresAt);
+    }
+
+    /**
+     * Checks whether the cloud assembly synthesized with this fingerprint can be reused for the synthesis with the
+     * given fingerprint. The assembly is never reused if the cached context values must be refreshed.
+     *
+     * @param fingerprint the fingerprint of the current synthesis inputs
+     * @param contextRefresh whether the cached context values must be resolved again
+     * @param now the current time
+     */
+    public boolean isUpToDate(String fingerprint, boolean contextRefresh, Instant now) {
+        if (contextRefresh || !value.equals(fingerprint)) {
+            return false;
+        }
+
+        return contextExpiresAt == null || now.isBefore(contextExpiresAt);
+    }
+
+    /**
+     * Reads the fingerprint from the given file.
+     *
+     * @return the fingerprint or nothing if the file doesn't exist or is malformed
+     */
+    public static Optional<SynthesisFingerprint> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || lines.get(0).trim().isEmpty()) {
+            return Optional.empty();
+        }
+
+        Instant contextExpiresAt = null;
+        if (lines.size() > 1 && !lines.get(1).trim().isEmpty()) {
+            try {
+                contextExpiresAt = Instant.parse(lines.get(1).trim());
+            } catch (DateTimeException e) {
+                return Optional.empty();
+            }
+        }
+
+        return Optional.of(new SynthesisFingerprint(lines.get(0).trim(), contextExpiresAt));
+    }
+
+    /**
+     * Writes the fingerprint to the given file: the fingerprint value on the first line followed by the expiration
+     * time of the context values, if any.
+     */
+    public void write(Path file) throws IOException {
+        String content = contextExpiresAt != null ? value + '\n' + contextExpiresAt + '\n' : value + '\n';
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,24 @@
+package io.linguarobot.aws.cdk.maven;
+
+/**
+ * Defines how the CDK application is executed during the synthesis.
+ */
+public enum SynthesisMode {
+
+    /**
+     * The application is executed in a new JVM.
+     */
+    FORK,
+
+    /**
+     * The application is executed within the Maven JVM, its classes are loaded with an isolated class loader.
+     */
+    IN_PROCESS,
+
+    /**
+     * The application is executed by a long-lived synthesis daemon, which is reused by the subsequent syntheses
+     * (including the ones performed by other builds of the project) until it has been idle for some time.
+     */
+    DAEMON
+
+}
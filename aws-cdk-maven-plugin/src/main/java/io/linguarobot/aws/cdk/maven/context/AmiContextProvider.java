@@ -34,21 +34,20 @@ public class AmiContextProvider implements ContextProvider {
     @Override
     public JsonValue getContextValue(JsonObject properties) {
         String environment = ContextProviders.buildEnvironment(properties);
-        try (Ec2Client ec2Client = awsClientProvider.getClient(Ec2Client.class, environment)) {
-            DescribeImagesRequest describeImagesRequest = DescribeImagesRequest.builder()
-                    .owners(getOwners(properties))
-                    .filters(getFilters(properties))
-                    .build();
+        Ec2Client ec2Client = awsClientProvider.getClient(Ec2Client.class, environment);
+        DescribeImagesRequest describeImagesRequest = DescribeImagesRequest.builder()
+                .owners(getOwners(properties))
+                .filters(getFilters(properties))
+                .build();
 
-            return Stream.of(ec2Client.describeImages(describeImagesRequest))
-                    .filter(DescribeImagesResponse::hasImages)
-                    .flatMap(response -> response.images().stream())
-                    .filter(image -> image.imageId() != null)
-                    .max(Comparator.comparing(image -> getCreationDate(image).orElse(null), Comparator.nullsFirst(Comparator.naturalOrder())))
-                    .map(Image::imageId)
-                    .map(Json::createValue)
-                    .orElseThrow(() -> new CdkPluginException("Found 0 AMIs matching the criteria, however at lest 1 is required"));
-        }
+        return Stream.of(ec2Client.describeImages(describeImagesRequest))
+                .filter(DescribeImagesResponse::hasImages)
+                .flatMap(response -> response.images().stream())
+                .filter(image -> image.imageId() != null)
+                .max(Comparator.comparing(image -> getCreationDate(image).orElse(null), Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(Image::imageId)
+                .map(Json::createValue)
+                .orElseThrow(() -> new CdkPluginException("Found 0 AMIs matching the criteria, however at lest 1 is required"));
     }
 
     private Optional<ZonedDateTime> getCreationDate(Image image) {
@@ -26,15 +26,14 @@ public class AvailabilityZonesContextProvider implements ContextProvider {
     @Override
     public JsonValue getContextValue(JsonObject properties) {
         String environment = ContextProviders.buildEnvironment(properties);
-        try (Ec2Client ec2Client = awsClientProvider.getClient(Ec2Client.class, environment)) {
-            return Stream.of(ec2Client.describeAvailabilityZones())
-                    .filter(DescribeAvailabilityZonesResponse::hasAvailabilityZones)
-                    .flatMap(availabilityZone -> availabilityZone.availabilityZones().stream())
-                    .filter(availabilityZone -> availabilityZone.state() == AvailabilityZoneState.AVAILABLE)
-                    .map(AvailabilityZone::zoneName)
-                    .map(Json::createValue)
-                    .collect(toJsonArray());
-        }
+        Ec2Client ec2Client = awsClientProvider.getClient(Ec2Client.class, environment);
+        return Stream.of(ec2Client.describeAvailabilityZones())
+                .filter(DescribeAvailabilityZonesResponse::hasAvailabilityZones)
+                .flatMap(availabilityZone -> availabilityZone.availabilityZones().stream())
+                .filter(availabilityZone -> availabilityZone.state() == AvailabilityZoneState.AVAILABLE)
+                .map(AvailabilityZone::zoneName)
+                .map(Json::createValue)
+                .collect(toJsonArray());
     }
 
     private static Collector<JsonValue, JsonArrayBuilder, JsonArray> toJsonArray() {
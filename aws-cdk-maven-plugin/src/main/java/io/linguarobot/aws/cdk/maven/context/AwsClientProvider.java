@@ -2,8 +2,15 @@ package io.linguarobot.aws.cdk.maven.context;
 
 import software.amazon.awssdk.core.SdkClient;
 
-public interface AwsClientProvider {
+/**
+ * Provides AWS clients for the given environments. The clients are owned by the provider and must not be closed by
+ * the callers, they're closed when the provider is closed.
+ */
+public interface AwsClientProvider extends AutoCloseable {
 
     <T extends SdkClient> T getClient(Class<T> clientType, String environment);
 
+    @Override
+    void close();
+
 }
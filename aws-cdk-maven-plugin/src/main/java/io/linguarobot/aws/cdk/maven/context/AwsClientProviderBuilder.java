@@ -1,11 +1,13 @@
 package io.linguarobot.aws.cdk.maven.context;
 
 import com.google.common.collect.ImmutableMap;
+import org.apache.commons.lang3.tuple.Pair;
 import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
 import software.amazon.awssdk.core.SdkClient;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 
@@ -23,21 +25,41 @@ public class AwsClientProviderBuilder {
         return this;
     }
 
+    /**
+     * Builds a provider creating a single client per client type and environment, the clients are reused until the
+     * provider is closed.
+     */
     public AwsClientProvider build() {
-        Map<Class<? extends SdkClient>, Function<String, ? extends SdkClient>> clientFactories = ImmutableMap.copyOf(factories);
+        return new CachingAwsClientProvider(ImmutableMap.copyOf(factories));
+    }
+
+    private static class CachingAwsClientProvider implements AwsClientProvider {
 
-        return new AwsClientProvider() {
+        private final Map<Class<? extends SdkClient>, Function<String, ? extends SdkClient>> clientFactories;
+        private final Map<Pair<Class<? extends SdkClient>, String>, SdkClient> clients;
 
-            @Override
-            public <T extends SdkClient> T getClient(Class<T> clientType, String environment) {
-                Function<String, ? extends SdkClient> clientFactory = clientFactories.get(clientType);
-                if (clientFactory == null) {
-                    throw new IllegalArgumentException("There's no factory registered for " + clientType.getSimpleName() + " client");
-                }
+        private CachingAwsClientProvider(Map<Class<? extends SdkClient>, Function<String, ? extends SdkClient>> clientFactories) {
+            this.clientFactories = clientFactories;
+            this.clients = new ConcurrentHashMap<>();
+        }
 
-                return clientType.cast(clientFactory.apply(environment));
+        @Override
+        public <T extends SdkClient> T getClient(Class<T> clientType, String environment) {
+            Function<String, ? extends SdkClient> clientFactory = clientFactories.get(clientType);
+            if (clientFactory == null) {
+                throw new IllegalArgumentException("There's no factory registered for " + clientType.getSimpleName() + " client");
             }
 
-        };
+            SdkClient client = clients.computeIfAbsent(Pair.of(clientType, environment), key -> clientFactory.apply(environment));
+            return clientType.cast(client);
+        }
+
+        @Override
+        public void close() {
+            clients.values().forEach(SdkClient::close);
+            clients.clear();
+        }
+
     }
+
 }
@@ -0,0 +1,69 @@
+package io.linguarobot.aws.cdk.maven.context;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A context provider returning the values from the {@link ContextCache} while they're fresh and delegating to the
+ * underlying provider otherwise.
+ */
+public class CachingContextProvider implements ContextProvider {
+
+    private final String key;
+    private final ContextProvider contextProvider;
+    private final ContextCache cache;
+    private final Duration ttl;
+    private final boolean refresh;
+    private final AtomicReference<Instant> earliestExpiration;
+
+    /**
+     * @param key the key of the underlying provider
+     * @param contextProvider the underlying provider
+     * @param cache the cache where the provided values are stored
+     * @param ttl the time the provided values are cached for
+     * @param refresh whether the cached values must be ignored and replaced with the newly provided ones
+     */
+    public CachingContextProvider(String key, ContextProvider contextProvider, ContextCache cache, Duration ttl, boolean refresh) {
+        this.key = key;
+        this.contextProvider = contextProvider;
+        this.cache = cache;
+        this.ttl = ttl;
+        this.refresh = refresh;
+        this.earliestExpiration = new AtomicReference<>();
+    }
+
+    @Override
+    public JsonValue getContextValue(JsonObject properties) {
+        if (!refresh) {
+            ContextCache.Entry cachedEntry = cache.getEntry(key, properties).orElse(null);
+            if (cachedEntry != null) {
+                updateEarliestExpiration(cachedEntry.getExpiresAt());
+                return cachedEntry.getValue();
+            }
+        }
+
+        JsonValue contextValue = contextProvider.getContextValue(properties);
+        if (contextValue != null) {
+            updateEarliestExpiration(cache.put(key, properties, contextValue, ttl));
+        }
+
+        return contextValue;
+    }
+
+    /**
+     * Returns the time when the first of the values returned by this provider expires, or nothing if the provider
+     * hasn't returned any value yet. The values returned by the provider shouldn't be used after this time.
+     */
+    public Optional<Instant> getEarliestExpiration() {
+        return Optional.ofNullable(earliestExpiration.get());
+    }
+
+    private void updateEarliestExpiration(Instant expiresAt) {
+        earliestExpiration.accumulateAndGet(expiresAt, (current, next) -> current == null || next.isBefore(current) ? next : current);
+    }
+
+}
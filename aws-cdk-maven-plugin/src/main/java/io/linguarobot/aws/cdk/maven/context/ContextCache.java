@@ -0,0 +1,183 @@
+package io.linguarobot.aws.cdk.maven.context;
+
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * A user-level cache of the context values shared by all the projects. The values are stored in the cache directory,
+ * one file per value, and are identified by the context provider and the properties the value has been provided for.
+ */
+public class ContextCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContextCache.class);
+
+    private static final String PROVIDER_FIELD = "provider";
+    private static final String PROPERTIES_FIELD = "properties";
+    private static final String EXPIRES_AT_FIELD = "expiresAt";
+    private static final String VALUE_FIELD = "value";
+
+    private final Path directory;
+    private final Clock clock;
+
+    public ContextCache(Path directory) {
+        this(directory, Clock.systemUTC());
+    }
+
+    public ContextCache(Path directory, Clock clock) {
+        this.directory = directory;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value provided by the given provider for the given properties, unless there's no such value
+     * or it has expired.
+     */
+    public Optional<JsonValue> get(String provider, JsonObject properties) {
+        return getEntry(provider, properties).map(Entry::getValue);
+    }
+
+    /**
+     * Returns the cached value provided by the given provider for the given properties along with its expiration time,
+     * unless there's no such value or it has expired.
+     */
+    public Optional<Entry> getEntry(String provider, JsonObject properties) {
+        Path entryFile = getEntryFile(provider, properties);
+        if (!Files.exists(entryFile)) {
+            return Optional.empty();
+        }
+
+        JsonObject entry;
+        try (Reader reader = Files.newBufferedReader(entryFile, StandardCharsets.UTF_8);
+             JsonReader jsonReader = Json.createReader(reader)) {
+            entry = jsonReader.readObject();
+        } catch (IOException | JsonException | ClassCastException e) {
+            logger.debug("Unable to read the cached context value from {}", entryFile, e);
+            return Optional.empty();
+        }
+
+        // the entry file names might collide, though it's highly unlikely
+        if (!provider.equals(entry.getString(PROVIDER_FIELD, null)) ||
+                !canonicalize(properties).equals(entry.get(PROPERTIES_FIELD)) ||
+                !entry.containsKey(EXPIRES_AT_FIELD) ||
+                !entry.containsKey(VALUE_FIELD)) {
+            return Optional.empty();
+        }
+
+        Instant expiresAt = Instant.ofEpochMilli(entry.getJsonNumber(EXPIRES_AT_FIELD).longValue());
+        if (!clock.instant().isBefore(expiresAt)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new Entry(entry.get(VALUE_FIELD), expiresAt));
+    }
+
+    /**
+     * Stores the value provided by the given provider for the given properties. The value expires after the given
+     * time-to-live.
+     *
+     * @return the time when the value expires
+     */
+    public Instant put(String provider, JsonObject properties, JsonValue value, Duration ttl) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        JsonObject entry = Json.createObjectBuilder()
+                .add(PROVIDER_FIELD, provider)
+                .add(PROPERTIES_FIELD, canonicalize(properties))
+                .add(EXPIRES_AT_FIELD, expiresAt.toEpochMilli())
+                .add(VALUE_FIELD, value)
+                .build();
+
+        Path entryFile = getEntryFile(provider, properties);
+        try {
+            Files.createDirectories(directory);
+            // the entry is written atomically as the cache might be used by several builds at the same time
+            Path temporaryFile = Files.createTempFile(directory, entryFile.getFileName().toString(), ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8);
+                     JsonWriter jsonWriter = Json.createWriter(writer)) {
+                    jsonWriter.writeObject(entry);
+                }
+                Files.move(temporaryFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to cache the context value in {}: {}", entryFile, e.getMessage());
+        }
+
+        return expiresAt;
+    }
+
+    private Path getEntryFile(String provider, JsonObject properties) {
+        String key = provider + ':' + canonicalize(properties);
+        return directory.resolve(Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + ".json");
+    }
+
+    /**
+     * Returns the given value with the object properties sorted by name, so that the equal values are represented in
+     * the same way.
+     */
+    private static JsonValue canonicalize(JsonValue value) {
+        switch (value.getValueType()) {
+            case OBJECT:
+                JsonObjectBuilder objectBuilder = Json.createObjectBuilder();
+                Map<String, JsonValue> properties = new TreeMap<>(value.asJsonObject());
+                properties.forEach((name, property) -> objectBuilder.add(name, canonicalize(property)));
+                return objectBuilder.build();
+            case ARRAY:
+                JsonArrayBuilder arrayBuilder = Json.createArrayBuilder();
+                JsonArray elements = value.asJsonArray();
+                elements.forEach(element -> arrayBuilder.add(canonicalize(element)));
+                return arrayBuilder.build();
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * A cached context value.
+     */
+    public static final class Entry {
+
+        private final JsonValue value;
+        private final Instant expiresAt;
+
+        private Entry(JsonValue value, Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        public JsonValue getValue() {
+            return value;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+
+    }
+
+}
@@ -33,44 +33,42 @@ public class HostedZoneContextProvider implements ContextProvider {
         boolean isPrivate = properties.getBoolean("privateZone", false);
         String vpcId = properties.getString("vpcId", null);
 
-        try (Route53Client route53Client = awsClientProvider.getClient(Route53Client.class, environment)) {
-            ListHostedZonesByNameRequest zoneListRequest = ListHostedZonesByNameRequest.builder()
-                    .dnsName(domainName)
-                    .build();
-
-            List<HostedZone> matchedHostedZones = Stream.of(route53Client.listHostedZonesByName(zoneListRequest))
-                    .filter(ListHostedZonesByNameResponse::hasHostedZones)
-                    .flatMap(response -> response.hostedZones().stream())
-                    .filter(zone -> zone.name().equals(domainName))
-                    .filter(zone -> isPrivate == isPrivate(zone))
-                    .filter(zone -> {
-                        if (vpcId == null) {
-                            return true;
-                        }
-
-                        GetHostedZoneRequest zoneRequest = GetHostedZoneRequest.builder()
-                                .id(zone.id())
-                                .build();
-
-                        return Stream.of(route53Client.getHostedZone(zoneRequest))
-                                .filter(GetHostedZoneResponse::hasVpCs)
-                                .flatMap(response -> response.vpCs().stream())
-                                .anyMatch(vpc -> vpc.vpcId().equals(vpcId));
-                    })
-                    .collect(Collectors.toList());
-
-            if (matchedHostedZones.size() != 1) {
-                throw new CdkPluginException("Found " + matchedHostedZones.size() + " hosted zones matching the " +
-                        "criteria, however exactly 1 is required");
-            }
-
-            HostedZone hostedZone = matchedHostedZones.get(0);
-            return Json.createObjectBuilder()
-                    .add("Id", hostedZone.id())
-                    .add("Name", hostedZone.name())
-                    .build();
+        Route53Client route53Client = awsClientProvider.getClient(Route53Client.class, environment);
+        ListHostedZonesByNameRequest zoneListRequest = ListHostedZonesByNameRequest.builder()
+                .dnsName(domainName)
+                .build();
+
+        List<HostedZone> matchedHostedZones = Stream.of(route53Client.listHostedZonesByName(zoneListRequest))
+                .filter(ListHostedZonesByNameResponse::hasHostedZones)
+                .flatMap(response -> response.hostedZones().stream())
+                .filter(zone -> zone.name().equals(domainName))
+                .filter(zone -> isPrivate == isPrivate(zone))
+                .filter(zone -> {
+                    if (vpcId == null) {
+                        return true;
+                    }
+
+                    GetHostedZoneRequest zoneRequest = GetHostedZoneRequest.builder()
+                            .id(zone.id())
+                            .build();
+
+                    return Stream.of(route53Client.getHostedZone(zoneRequest))
+                            .filter(GetHostedZoneResponse::hasVpCs)
+                            .flatMap(response -> response.vpCs().stream())
+                            .anyMatch(vpc -> vpc.vpcId().equals(vpcId));
+                })
+                .collect(Collectors.toList());
+
+        if (matchedHostedZones.size() != 1) {
+            throw new CdkPluginException("Found " + matchedHostedZones.size() + " hosted zones matching the " +
+                    "criteria, however exactly 1 is required");
         }
 
+        HostedZone hostedZone = matchedHostedZones.get(0);
+        return Json.createObjectBuilder()
+                .add("Id", hostedZone.id())
+                .add("Name", hostedZone.name())
+                .build();
     }
 
     private boolean isPrivate(HostedZone hostedZone) {
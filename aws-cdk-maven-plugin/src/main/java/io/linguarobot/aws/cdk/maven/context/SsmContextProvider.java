@@ -28,25 +28,24 @@ public class SsmContextProvider implements ContextProvider {
         String environment = ContextProviders.buildEnvironment(properties);
         String parameterName = ContextProviders.getRequiredProperty(properties, "parameterName");
 
-        try (SsmClient ssmClient = awsClientProvider.getClient(SsmClient.class, environment)) {
-            String value;
-            try {
-                GetParameterResponse response = ssmClient.getParameter(parameterRequest(parameterName));
-                value = Optional.of(response)
-                        .map(GetParameterResponse::parameter)
-                        .map(Parameter::value)
-                        .orElse(null);
-            } catch (ParameterNotFoundException e) {
-                value = null;
-            }
-
-            if (value == null) {
-                throw new CdkPluginException("The SSM parameter '" + parameterName + "' is not available for the " +
-                        "following environment: " + environment);
-            }
-
-            return Json.createValue(value);
+        SsmClient ssmClient = awsClientProvider.getClient(SsmClient.class, environment);
+        String value;
+        try {
+            GetParameterResponse response = ssmClient.getParameter(parameterRequest(parameterName));
+            value = Optional.of(response)
+                    .map(GetParameterResponse::parameter)
+                    .map(Parameter::value)
+                    .orElse(null);
+        } catch (ParameterNotFoundException e) {
+            value = null;
         }
+
+        if (value == null) {
+            throw new CdkPluginException("The SSM parameter '" + parameterName + "' is not available for the " +
+                    "following environment: " + environment);
+        }
+
+        return Json.createValue(value);
     }
 
     private GetParameterRequest parameterRequest(String parameterName) {
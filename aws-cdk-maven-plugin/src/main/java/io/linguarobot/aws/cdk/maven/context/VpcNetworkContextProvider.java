@@ -10,6 +10,7 @@ import com.fasterxml.jackson.datatype.jsr353.JSR353Module;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.linguarobot.aws.cdk.maven.CdkPluginException;
 import io.linguarobot.aws.cdk.maven.MoreCollectors;
 import org.apache.commons.lang3.StringUtils;
@@ -45,6 +46,12 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -64,6 +71,13 @@ public class VpcNetworkContextProvider implements ContextProvider {
     private static final String ISOLATED_SUBNET_TYPE = "Isolated";
     private static final Set<String> SUBNET_TYPES =
             ImmutableSet.of(PUBLIC_SUBNET_TYPE, PRIVATE_SUBNET_TYPE, ISOLATED_SUBNET_TYPE);
+    private static final int FETCH_THREADS = 12;
+
+    /**
+     * The executor the resources of the VPCs are fetched on. The threads are started on demand and terminate once
+     * they're idle, so the executor doesn't need to be shut down.
+     */
+    private static final ExecutorService EXECUTOR = newFetchExecutor();
 
     private final AwsClientProvider awsClientProvider;
 
@@ -71,14 +85,20 @@ public class VpcNetworkContextProvider implements ContextProvider {
         this.awsClientProvider = awsClientProvider;
     }
 
+    private static ExecutorService newFetchExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(FETCH_THREADS, FETCH_THREADS, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), new ThreadFactoryBuilder().setNameFormat("cdk-vpc-lookup-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Override
     public JsonValue getContextValue(JsonObject properties) {
         String environment = ContextProviders.buildEnvironment(properties);
-        try (Ec2Client ec2Client = awsClientProvider.getClient(Ec2Client.class, environment)) {
-            Vpc vpc = getVpc(ec2Client, getFilters(properties));
-            VpcContext vpcContext = getVpcContext(ec2Client, vpc, properties);
-            return OBJECT_MAPPER.convertValue(vpcContext, JsonObject.class);
-        }
+        Ec2Client ec2Client = awsClientProvider.getClient(Ec2Client.class, environment);
+        Vpc vpc = getVpc(ec2Client, getFilters(properties));
+        VpcContext vpcContext = getVpcContext(ec2Client, vpc, properties);
+        return OBJECT_MAPPER.convertValue(vpcContext, JsonObject.class);
     }
 
     private Vpc getVpc(Ec2Client ec2Client, List<Filter> filters) {
@@ -99,12 +119,20 @@ public class VpcNetworkContextProvider implements ContextProvider {
     }
 
     private VpcContext getVpcContext(Ec2Client ec2Client, Vpc vpc, JsonObject properties) {
+        // the resources of the VPC are independent of each other, so they're fetched concurrently
+        CompletableFuture<Optional<VpnGateway>> vpnGateway =
+                CompletableFuture.supplyAsync(() -> getVpnGateway(ec2Client, vpc), EXECUTOR);
+        CompletableFuture<List<RouteTable>> routeTables =
+                CompletableFuture.supplyAsync(() -> getRouteTables(ec2Client, vpc), EXECUTOR);
+        CompletableFuture<List<software.amazon.awssdk.services.ec2.model.Subnet>> subnets =
+                CompletableFuture.supplyAsync(() -> describeSubnets(ec2Client, vpc), EXECUTOR);
+
         VpcContext.Builder contextBuilder = VpcContext.builder()
                 .vpcId(vpc.vpcId())
                 .vpcCidrBlock(vpc.cidrBlock())
-                .vpnGatewayId(getVpnGateway(ec2Client, vpc).map(VpnGateway::vpnGatewayId).orElse(null));
+                .vpnGatewayId(join(vpnGateway).map(VpnGateway::vpnGatewayId).orElse(null));
         String groupNameTagName = properties.getString("subnetGroupNameTag", "aws-cdk:subnet-name");
-        Map<String, Map<String, List<Subnet>>> vpcSubnets = getSubnets(ec2Client, vpc).stream()
+        Map<String, Map<String, List<Subnet>>> vpcSubnets = getSubnets(join(routeTables), join(subnets)).stream()
                 .collect(Collectors.groupingBy(
                         Subnet::getType,
                         LinkedHashMap::new,
@@ -213,8 +241,26 @@ public class VpcNetworkContextProvider implements ContextProvider {
         return routeTables;
     }
 
-    private List<Subnet> getSubnets(Ec2Client ec2Client, Vpc vpc) {
-        List<RouteTable> routeTables = getRouteTables(ec2Client, vpc);
+    private List<software.amazon.awssdk.services.ec2.model.Subnet> describeSubnets(Ec2Client ec2Client, Vpc vpc) {
+        List<software.amazon.awssdk.services.ec2.model.Subnet> subnets = new ArrayList<>();
+
+        String token = null;
+        do {
+            DescribeSubnetsRequest request = DescribeSubnetsRequest.builder()
+                    .filters(filter("vpc-id", vpc.vpcId()))
+                    .nextToken(token)
+                    .build();
+            DescribeSubnetsResponse response = ec2Client.describeSubnets(request);
+            if (response.subnets() != null) {
+                subnets.addAll(response.subnets());
+            }
+            token = response.nextToken();
+        } while (token != null);
+
+        return subnets;
+    }
+
+    private List<Subnet> getSubnets(List<RouteTable> routeTables, List<software.amazon.awssdk.services.ec2.model.Subnet> vpcSubnets) {
         RouteTable mainRouteTable = routeTables.stream()
                 .filter(routeTable -> getStream(routeTable.associations())
                         .anyMatch(association -> association.main() != null && association.main()))
@@ -228,53 +274,41 @@ public class VpcNetworkContextProvider implements ContextProvider {
                         .map(subnetId -> Pair.of(subnetId, routeTable)))
                 .collect(Collectors.toMap(Pair::getKey, Pair::getValue));
 
-        String token = null;
-
         List<Subnet> subnets = new ArrayList<>();
-        do {
-            DescribeSubnetsRequest request = DescribeSubnetsRequest.builder()
-                    .filters(filter("vpc-id", vpc.vpcId()))
-                    .nextToken(token)
-                    .build();
-            DescribeSubnetsResponse response = ec2Client.describeSubnets(request);
-            if (response.subnets() != null) {
-                response.subnets().forEach(subnet -> {
-                    RouteTable routeTable = subnetRouteTables.getOrDefault(subnet.subnetId(), mainRouteTable);
-                    if (routeTable == null) {
-                        throw new CdkPluginException("The subnet '" + subnet.subnetId() + "' doesn't have an associated " +
-                                "route table");
-                    }
-
-                    Subnet result = new Subnet();
-                    result.setId(subnet.subnetId());
-                    result.setAvailabilityZone(subnet.availabilityZone());
-                    result.setCidrBlock(subnet.cidrBlock());
-
-                    Map<String, String> tags = getStream(subnet.tags())
-                            .collect(Collectors.toMap(Tag::key, Tag::value, (a, b) -> a));
-
-                    String type = Optional.ofNullable(tags.get("aws-cdk:subnet-type"))
-                            .orElseGet(() -> {
-                                if (subnet.mapPublicIpOnLaunch() != null && subnet.mapPublicIpOnLaunch()) {
-                                    return PUBLIC_SUBNET_TYPE;
-                                }
-
-                                return hasInternetGateway(routeTable) ? PUBLIC_SUBNET_TYPE : PRIVATE_SUBNET_TYPE;
-                            });
-
-                    if (!SUBNET_TYPES.contains(type)) {
-                        throw new CdkPluginException("The subnet '" + subnet.subnetId() + "' has invalid type '" +
-                                type + "'. The type must be one of the following values: " + String.join(", ", SUBNET_TYPES));
-                    }
-
-                    result.setType(type);
-                    result.setTags(tags);
-                    result.setRouteTableId(routeTable.routeTableId());
-                    subnets.add(result);
-                });
+        vpcSubnets.forEach(subnet -> {
+            RouteTable routeTable = subnetRouteTables.getOrDefault(subnet.subnetId(), mainRouteTable);
+            if (routeTable == null) {
+                throw new CdkPluginException("The subnet '" + subnet.subnetId() + "' doesn't have an associated " +
+                        "route table");
             }
-            token = response.nextToken();
-        } while (token != null);
+
+            Subnet result = new Subnet();
+            result.setId(subnet.subnetId());
+            result.setAvailabilityZone(subnet.availabilityZone());
+            result.setCidrBlock(subnet.cidrBlock());
+
+            Map<String, String> tags = getStream(subnet.tags())
+                    .collect(Collectors.toMap(Tag::key, Tag::value, (a, b) -> a));
+
+            String type = Optional.ofNullable(tags.get("aws-cdk:subnet-type"))
+                    .orElseGet(() -> {
+                        if (subnet.mapPublicIpOnLaunch() != null && subnet.mapPublicIpOnLaunch()) {
+                            return PUBLIC_SUBNET_TYPE;
+                        }
+
+                        return hasInternetGateway(routeTable) ? PUBLIC_SUBNET_TYPE : PRIVATE_SUBNET_TYPE;
+                    });
+
+            if (!SUBNET_TYPES.contains(type)) {
+                throw new CdkPluginException("The subnet '" + subnet.subnetId() + "' has invalid type '" +
+                        type + "'. The type must be one of the following values: " + String.join(", ", SUBNET_TYPES));
+            }
+
+            result.setType(type);
+            result.setTags(tags);
+            result.setRouteTableId(routeTable.routeTableId());
+            subnets.add(result);
+        });
 
         return subnets;
     }
@@ -319,6 +353,17 @@ public class VpcNetworkContextProvider implements ContextProvider {
         return values != null ? values.stream() : Stream.empty();
     }
 
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     private static class Subnet {
 
         private String id;
@@ -17,11 +17,9 @@ import java.util.stream.IntStream;
 public class DefaultProcessRunner implements ProcessRunner {
 
     private final File defaultWorkingDirectory;
-    private final Executor executor;
 
     public DefaultProcessRunner(File defaultWorkingDirectory) {
         this.defaultWorkingDirectory = defaultWorkingDirectory;
-        this.executor = createExecutor();
     }
 
     private static Executor createExecutor() {
@@ -35,6 +33,8 @@ public class DefaultProcessRunner implements ProcessRunner {
     public int run(List<String> command, ProcessContext processContext) {
         CommandLine commandLine =  toCommandLine(command);
 
+        // The executor is configured for every process, so a new one is created in order to allow concurrent runs
+        Executor executor = createExecutor();
         File workingDirectory = processContext.getWorkingDirectory().orElse(defaultWorkingDirectory);
         executor.setWorkingDirectory(workingDirectory);
         OutputStream output = processContext.getOutput().orElse(System.out);
@@ -0,0 +1,53 @@
+package io.linguarobot.aws.cdk.maven;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AssetPublicationRegistryTest {
+
+    @Test
+    public void testSameAssetIsPublishedOnce() {
+        AssetPublicationRegistry registry = new AssetPublicationRegistry();
+        AtomicInteger publications = new AtomicInteger();
+
+        CompletableFuture<Void> first = registry.publish("aws://123456789012/eu-west-1", "bucket", "assets/hash.zip",
+                () -> CompletableFuture.runAsync(publications::incrementAndGet));
+        CompletableFuture<Void> second = registry.publish("aws://123456789012/eu-west-1", "bucket", "assets/hash.zip",
+                () -> CompletableFuture.runAsync(publications::incrementAndGet));
+
+        Assert.assertSame(second, first);
+        second.join();
+        Assert.assertEquals(publications.get(), 1);
+    }
+
+    @Test
+    public void testAssetsInDifferentEnvironmentsArePublishedSeparately() {
+        AssetPublicationRegistry registry = new AssetPublicationRegistry();
+        AtomicInteger publications = new AtomicInteger();
+
+        registry.publish("aws://123456789012/eu-west-1", "bucket", "assets/hash.zip",
+                () -> CompletableFuture.runAsync(publications::incrementAndGet)).join();
+        registry.publish("aws://123456789012/us-east-1", "bucket", "assets/hash.zip",
+                () -> CompletableFuture.runAsync(publications::incrementAndGet)).join();
+
+        Assert.assertEquals(publications.get(), 2);
+    }
+
+    @Test
+    public void testCancelledPublicationIsStartedAgain() {
+        AssetPublicationRegistry registry = new AssetPublicationRegistry();
+
+        CompletableFuture<Void> cancelled = registry.publish("aws://123456789012/eu-west-1", "repository", "tag",
+                CompletableFuture::new);
+        cancelled.cancel(false);
+        CompletableFuture<Void> publication = registry.publish("aws://123456789012/eu-west-1", "repository", "tag",
+                () -> CompletableFuture.completedFuture(null));
+
+        Assert.assertNotSame(publication, cancelled);
+        Assert.assertFalse(publication.isCompletedExceptionally());
+    }
+
+}
@@ -0,0 +1,158 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.collect.ImmutableList;
+import io.linguarobot.aws.cdk.maven.process.ProcessContext;
+import io.linguarobot.aws.cdk.maven.process.ProcessExecutionException;
+import io.linguarobot.aws.cdk.maven.process.ProcessRunner;
+import org.mockito.ArgumentCaptor;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.services.ecr.model.Repository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DockerImageAssetPublisherTest {
+
+    private static final String REPOSITORY_URI = "123456789012.dkr.ecr.eu-west-1.amazonaws.com/repository";
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("docker-image-asset-publisher-test");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testBuildUsesRemoteLayerCache() {
+        ProcessRunner processRunner = mock(ProcessRunner.class);
+        EcrSession ecrSession = ecrSession();
+        DockerImageAssetPublisher publisher = new DockerImageAssetPublisher(processRunner, ecrSession, null, true);
+
+        publisher.build("repository", imageBuild("cache-tag"));
+
+        List<String> buildCommand = captureBuildCommand(processRunner);
+        Assert.assertTrue(buildCommand.contains("BUILDKIT_INLINE_CACHE=1"));
+        int cacheFromIndex = buildCommand.indexOf("--cache-from");
+        Assert.assertTrue(cacheFromIndex >= 0);
+        Assert.assertEquals(buildCommand.get(cacheFromIndex + 1), REPOSITORY_URI + ":cache-tag");
+        verify(ecrSession).login();
+    }
+
+    @Test
+    public void testBuildWithoutRemoteLayerCache() {
+        ProcessRunner processRunner = mock(ProcessRunner.class);
+        EcrSession ecrSession = ecrSession();
+        DockerImageAssetPublisher publisher = new DockerImageAssetPublisher(processRunner, ecrSession, null, false);
+
+        publisher.build("repository", imageBuild("cache-tag"));
+
+        Assert.assertFalse(captureBuildCommand(processRunner).contains("--cache-from"));
+        verify(ecrSession, never()).login();
+    }
+
+    @Test
+    public void testBuildFailureKeepsCause() {
+        ProcessRunner processRunner = mock(ProcessRunner.class);
+        ProcessExecutionException exception = new ProcessExecutionException(ImmutableList.of("docker", "build"), 1, null);
+        when(processRunner.run(any(List.class), any(ProcessContext.class))).thenAnswer(invocation -> {
+            ProcessContext processContext = (ProcessContext) invocation.getArguments()[1];
+            processContext.getOutput().get().write("RUN npm ci failed".getBytes(StandardCharsets.UTF_8));
+            throw exception;
+        });
+        DockerImageAssetPublisher publisher = new DockerImageAssetPublisher(processRunner, ecrSession(), null, false);
+
+        try {
+            publisher.build("repository", imageBuild(null));
+            Assert.fail("The build should have failed");
+        } catch (CdkPluginException e) {
+            Assert.assertSame(e.getCause(), exception);
+            Assert.assertTrue(e.getMessage().contains("see the build output above"));
+        }
+    }
+
+    @Test
+    public void testLocallyCachedImageIsReusedWithoutRemoteLayerCache() throws IOException {
+        Path contextDirectory = Files.createDirectory(directory.resolve("context"));
+        Files.write(contextDirectory.resolve("Dockerfile"), "FROM node:12\n".getBytes(StandardCharsets.UTF_8));
+        ImageBuild imageBuild = ImageBuild.builder()
+                .withContextDirectory(contextDirectory)
+                .withDockerfile(contextDirectory.resolve("Dockerfile"))
+                .withImageTag("image")
+                .withCacheTag("cache-tag")
+                .build();
+        Path imageCacheDirectory = Files.createDirectory(directory.resolve("images"));
+        Files.write(imageCacheDirectory.resolve(ImageBuildDigest.compute(imageBuild)), "sha256:image".getBytes(StandardCharsets.UTF_8));
+
+        ProcessRunner processRunner = mock(ProcessRunner.class);
+        when(processRunner.run(ImmutableList.of("docker", "image", "inspect", "--format", "{{.Id}}", "sha256:image")))
+                .thenReturn("sha256:image\n");
+        EcrSession ecrSession = ecrSession();
+        DockerImageAssetPublisher publisher = new DockerImageAssetPublisher(processRunner, ecrSession, imageCacheDirectory, true);
+
+        publisher.build("repository", imageBuild);
+
+        verify(processRunner).run(ImmutableList.of("docker", "tag", "sha256:image", "image"));
+        verify(processRunner, never()).run(any(List.class), any(ProcessContext.class));
+        verify(ecrSession, never()).login();
+    }
+
+    @Test
+    public void testCacheIsPushedWithImage() {
+        ProcessRunner processRunner = mock(ProcessRunner.class);
+        DockerImageAssetPublisher publisher = new DockerImageAssetPublisher(processRunner, ecrSession(), null, true);
+
+        publisher.push("repository", "tag", imageBuild("cache-tag"));
+
+        verify(processRunner).run(ImmutableList.of("docker", "push", REPOSITORY_URI + ":tag"));
+        verify(processRunner).run(ImmutableList.of("docker", "tag", "image", REPOSITORY_URI + ":cache-tag"));
+        verify(processRunner).run(ImmutableList.of("docker", "push", REPOSITORY_URI + ":cache-tag"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> captureBuildCommand(ProcessRunner processRunner) {
+        ArgumentCaptor<List> command = ArgumentCaptor.forClass(List.class);
+        verify(processRunner).run(command.capture(), any(ProcessContext.class));
+        return (List<String>) command.getValue();
+    }
+
+    private static EcrSession ecrSession() {
+        EcrSession ecrSession = mock(EcrSession.class);
+        when(ecrSession.getRepository("repository")).thenReturn(Repository.builder()
+                .repositoryName("repository")
+                .repositoryUri(REPOSITORY_URI)
+                .build());
+        return ecrSession;
+    }
+
+    private static ImageBuild imageBuild(String cacheTag) {
+        return ImageBuild.builder()
+                .withContextDirectory(Paths.get("context"))
+                .withDockerfile(Paths.get("context", "Dockerfile"))
+                .withImageTag("image")
+                .withCacheTag(cacheTag)
+                .build();
+    }
+
+}
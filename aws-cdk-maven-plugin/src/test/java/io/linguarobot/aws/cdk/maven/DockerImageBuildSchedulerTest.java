@@ -0,0 +1,135 @@
+package io.linguarobot.aws.cdk.maven;
+
+import org.mockito.InOrder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DockerImageBuildSchedulerTest {
+
+    @Test
+    public void testPublishedImageIsSkipped() {
+        DockerImageAssetPublisher publisher = mock(DockerImageAssetPublisher.class);
+        when(publisher.isPublished("repository", "tag")).thenReturn(true);
+
+        try (DockerImageBuildScheduler scheduler = new DockerImageBuildScheduler(2, 2)) {
+            scheduler.schedule(publisher, "repository", "tag", imageBuild("image")).join();
+        }
+
+        verify(publisher, never()).build(any(), any());
+        verify(publisher, never()).push(any(), any(), any());
+    }
+
+    @Test
+    public void testImageIsPushedAfterBuild() {
+        DockerImageAssetPublisher publisher = mock(DockerImageAssetPublisher.class);
+        ImageBuild imageBuild = imageBuild("image");
+
+        try (DockerImageBuildScheduler scheduler = new DockerImageBuildScheduler(2, 2)) {
+            scheduler.schedule(publisher, "repository", "tag", imageBuild).join();
+        }
+
+        InOrder order = inOrder(publisher);
+        order.verify(publisher).build("repository", imageBuild);
+        order.verify(publisher).push("repository", "tag", imageBuild);
+    }
+
+    @Test(timeOut = 10000)
+    public void testBuildConcurrencyLimit() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        DockerImageAssetPublisher publisher = mock(DockerImageAssetPublisher.class);
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            return null;
+        }).when(publisher).build(any(), any());
+
+        try (DockerImageBuildScheduler scheduler = new DockerImageBuildScheduler(3, 1)) {
+            List<CompletableFuture<Void>> publications = IntStream.range(0, 9)
+                    .mapToObj(i -> scheduler.schedule(publisher, "repository", "tag-" + i, imageBuild("image-" + i)))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(publications.toArray(new CompletableFuture[0])).join();
+        }
+
+        Assert.assertEquals(maxRunning.get(), 3);
+    }
+
+    @Test(timeOut = 10000)
+    public void testCancelledPublicationIsSkipped() throws InterruptedException {
+        CountDownLatch buildStarted = new CountDownLatch(1);
+        CountDownLatch buildReleased = new CountDownLatch(1);
+        DockerImageAssetPublisher publisher = mock(DockerImageAssetPublisher.class);
+        ImageBuild first = imageBuild("first");
+        ImageBuild second = imageBuild("second");
+        doAnswer(invocation -> {
+            buildStarted.countDown();
+            buildReleased.await();
+            return null;
+        }).when(publisher).build("repository", first);
+
+        try (DockerImageBuildScheduler scheduler = new DockerImageBuildScheduler(1, 1)) {
+            CompletableFuture<Void> firstPublication = scheduler.schedule(publisher, "repository", "first", first);
+            CompletableFuture<Void> secondPublication = scheduler.schedule(publisher, "repository", "second", second);
+            Assert.assertTrue(buildStarted.await(5, TimeUnit.SECONDS));
+            secondPublication.cancel(false);
+            buildReleased.countDown();
+            firstPublication.join();
+        }
+
+        verify(publisher).push("repository", "first", first);
+        verify(publisher, never()).build("repository", second);
+        verify(publisher, never()).push("repository", "second", second);
+    }
+
+    @Test(timeOut = 10000)
+    public void testCloseAwaitsBuildInProgress() throws InterruptedException {
+        CountDownLatch buildStarted = new CountDownLatch(1);
+        AtomicBoolean buildCompleted = new AtomicBoolean();
+        DockerImageAssetPublisher publisher = mock(DockerImageAssetPublisher.class);
+        ImageBuild imageBuild = imageBuild("image");
+        doAnswer(invocation -> {
+            buildStarted.countDown();
+            Thread.sleep(200);
+            buildCompleted.set(true);
+            return null;
+        }).when(publisher).build("repository", imageBuild);
+
+        DockerImageBuildScheduler scheduler = new DockerImageBuildScheduler(1, 1);
+        CompletableFuture<Void> publication = scheduler.schedule(publisher, "repository", "tag", imageBuild);
+        Assert.assertTrue(buildStarted.await(5, TimeUnit.SECONDS));
+        scheduler.close();
+
+        // the build isn't interrupted, while the outstanding push is cancelled
+        Assert.assertTrue(buildCompleted.get());
+        Assert.assertTrue(publication.isCancelled());
+        verify(publisher, never()).push(any(), any(), any());
+    }
+
+    private static ImageBuild imageBuild(String tag) {
+        return ImageBuild.builder()
+                .withContextDirectory(Paths.get("context"))
+                .withDockerfile(Paths.get("context", "Dockerfile"))
+                .withImageTag(tag)
+                .build();
+    }
+
+}
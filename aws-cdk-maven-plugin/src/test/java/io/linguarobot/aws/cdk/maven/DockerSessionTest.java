@@ -0,0 +1,83 @@
+package io.linguarobot.aws.cdk.maven;
+
+import io.linguarobot.aws.cdk.maven.process.ProcessRunner;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DockerSessionTest {
+
+    @Test
+    public void testDockerIsCheckedOnce() {
+        ProcessRunner processRunner = mock(ProcessRunner.class);
+        DockerSession dockerSession = new DockerSession(processRunner);
+
+        dockerSession.ensureDockerInstalled();
+        dockerSession.ensureDockerInstalled();
+
+        verify(processRunner, times(1)).run(Arrays.asList("docker", "--version"));
+    }
+
+    @Test(timeOut = 10000)
+    public void testBuildsOfSameImageAreExclusive() throws InterruptedException {
+        DockerSession dockerSession = new DockerSession(mock(ProcessRunner.class));
+        CountDownLatch firstBuildStarted = new CountDownLatch(1);
+        CountDownLatch otherBuildCompleted = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Runnable build = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        };
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> dockerSession.build("digest", () -> {
+            firstBuildStarted.countDown();
+            // the build of another image isn't blocked by the lock
+            try {
+                otherBuildCompleted.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            build.run();
+        }));
+        firstBuildStarted.await();
+        dockerSession.build("other-digest", otherBuildCompleted::countDown);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> dockerSession.build("digest", build));
+        first.join();
+        second.join();
+
+        Assert.assertEquals(maxRunning.get(), 1);
+    }
+
+    @Test
+    public void testBuildLocksAreDiscarded() {
+        DockerSession dockerSession = new DockerSession(mock(ProcessRunner.class));
+
+        dockerSession.build("digest", () -> Assert.assertEquals(dockerSession.getBuildLockCount(), 1));
+        try {
+            dockerSession.build("other-digest", () -> {
+                throw new CdkPluginException("Failed to build the docker image");
+            });
+            Assert.fail("The build must fail");
+        } catch (CdkPluginException e) {
+            // expected
+        }
+
+        Assert.assertEquals(dockerSession.getBuildLockCount(), 0);
+    }
+
+}
@@ -0,0 +1,146 @@
+package io.linguarobot.aws.cdk.maven;
+
+import io.linguarobot.aws.cdk.maven.process.ProcessRunner;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.services.ecr.EcrClient;
+import software.amazon.awssdk.services.ecr.model.AuthorizationData;
+import software.amazon.awssdk.services.ecr.model.BatchGetImageRequest;
+import software.amazon.awssdk.services.ecr.model.BatchGetImageResponse;
+import software.amazon.awssdk.services.ecr.model.CreateRepositoryRequest;
+import software.amazon.awssdk.services.ecr.model.CreateRepositoryResponse;
+import software.amazon.awssdk.services.ecr.model.DescribeImagesRequest;
+import software.amazon.awssdk.services.ecr.model.DescribeRepositoriesRequest;
+import software.amazon.awssdk.services.ecr.model.GetAuthorizationTokenResponse;
+import software.amazon.awssdk.services.ecr.model.Image;
+import software.amazon.awssdk.services.ecr.model.ImageFailure;
+import software.amazon.awssdk.services.ecr.model.ImageFailureCode;
+import software.amazon.awssdk.services.ecr.model.Repository;
+import software.amazon.awssdk.services.ecr.model.RepositoryNotFoundException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EcrSessionTest {
+
+    private static final Instant NOW = Instant.parse("2020-06-01T10:00:00Z");
+
+    @Test
+    public void testLoginIsReusedUntilTokenExpires() {
+        EcrClient ecrClient = mock(EcrClient.class);
+        when(ecrClient.getAuthorizationToken()).thenReturn(authorizationToken(NOW.plus(Duration.ofHours(12))));
+        ProcessRunner processRunner = mock(ProcessRunner.class);
+        AtomicReference<Instant> now = new AtomicReference<>(NOW);
+        Clock clock = new Clock() {
+
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+
+        };
+
+        EcrSession session = new EcrSession(() -> ecrClient, processRunner, clock);
+        session.login();
+        session.login();
+        verify(ecrClient, times(1)).getAuthorizationToken();
+        verify(processRunner, times(1)).run(anyListOf(String.class));
+
+        now.set(NOW.plus(Duration.ofHours(12)));
+        session.login();
+        verify(ecrClient, times(2)).getAuthorizationToken();
+        verify(processRunner, times(2)).run(anyListOf(String.class));
+    }
+
+    @Test
+    public void testRepositoriesAreCached() {
+        EcrClient ecrClient = mock(EcrClient.class);
+        when(ecrClient.describeRepositories(any(DescribeRepositoriesRequest.class)))
+                .thenThrow(RepositoryNotFoundException.builder().build());
+        when(ecrClient.createRepository(any(CreateRepositoryRequest.class)))
+                .thenReturn(CreateRepositoryResponse.builder()
+                        .repository(Repository.builder()
+                                .repositoryName("repository")
+                                .repositoryUri("123456789012.dkr.ecr.eu-west-1.amazonaws.com/repository")
+                                .build())
+                        .build());
+
+        EcrSession session = new EcrSession(() -> ecrClient, mock(ProcessRunner.class), Clock.fixed(NOW, ZoneOffset.UTC));
+        Repository repository = session.getRepository("repository");
+        Assert.assertSame(session.getRepository("repository"), repository);
+        Assert.assertEquals(repository.repositoryUri(), "123456789012.dkr.ecr.eu-west-1.amazonaws.com/repository");
+        verify(ecrClient, times(1)).describeRepositories(any(DescribeRepositoriesRequest.class));
+        verify(ecrClient, times(1)).createRepository(any(CreateRepositoryRequest.class));
+    }
+
+    @Test
+    public void testImagesAreCheckedInBatches() {
+        EcrClient ecrClient = mock(EcrClient.class);
+        when(ecrClient.batchGetImage(any(BatchGetImageRequest.class))).thenAnswer(invocation -> {
+            BatchGetImageRequest request = (BatchGetImageRequest) invocation.getArguments()[0];
+            BatchGetImageResponse.Builder response = BatchGetImageResponse.builder();
+            List<Image> images = new ArrayList<>();
+            List<ImageFailure> failures = new ArrayList<>();
+            request.imageIds().forEach(imageId -> {
+                if (Integer.parseInt(imageId.imageTag()) % 2 == 0) {
+                    images.add(Image.builder().imageId(imageId).build());
+                } else {
+                    failures.add(ImageFailure.builder().imageId(imageId).failureCode(ImageFailureCode.IMAGE_NOT_FOUND).build());
+                }
+            });
+            return response.images(images).failures(failures).build();
+        });
+
+        EcrSession session = new EcrSession(() -> ecrClient, mock(ProcessRunner.class), Clock.fixed(NOW, ZoneOffset.UTC));
+        List<String> tags = IntStream.range(0, 150).mapToObj(Integer::toString).collect(Collectors.toList());
+        Set<String> publishedTags = session.checkImages("repository", tags);
+
+        Assert.assertEquals(publishedTags.size(), 75);
+        Assert.assertTrue(publishedTags.contains("0"));
+        Assert.assertTrue(session.isPublished("repository", "2"));
+        Assert.assertFalse(session.isPublished("repository", "3"));
+        verify(ecrClient, times(2)).batchGetImage(any(BatchGetImageRequest.class));
+        verify(ecrClient, never()).describeImages(any(DescribeImagesRequest.class));
+    }
+
+    private static GetAuthorizationTokenResponse authorizationToken(Instant expiresAt) {
+        String token = Base64.getEncoder().encodeToString("AWS:password".getBytes(StandardCharsets.UTF_8));
+        return GetAuthorizationTokenResponse.builder()
+                .authorizationData(AuthorizationData.builder()
+                        .authorizationToken(token)
+                        .proxyEndpoint("https://123456789012.dkr.ecr.eu-west-1.amazonaws.com")
+                        .expiresAt(expiresAt)
+                        .build())
+                .build();
+    }
+
+}
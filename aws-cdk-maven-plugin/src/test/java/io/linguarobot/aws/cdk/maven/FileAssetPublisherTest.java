@@ -0,0 +1,413 @@
+package io.linguarobot.aws.cdk.maven;
+
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FileAssetPublisherTest {
+
+    private static final int PART_SIZE = FileAssetPublisher.S3ObjectOutputStream.MINIMUM_PART_SIZE;
+    private static final int MEGABYTE = 1024 * 1024;
+    private static final long GIGABYTE = 1024L * MEGABYTE;
+
+    private ScheduledExecutorService executor;
+    private Path file;
+
+    @BeforeClass
+    public void setUp() {
+        executor = Executors.newScheduledThreadPool(4);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @BeforeMethod
+    public void createFile() throws IOException {
+        file = Files.createTempFile("file-asset", ".bin");
+    }
+
+    @AfterMethod
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test(timeOut = 30000)
+    public void testPartsAreNotModifiedWhileInFlight() throws IOException {
+        testInFlightParts(false);
+    }
+
+    @Test(timeOut = 30000)
+    public void testPartsAreNotModifiedWhileInFlightWithDirectBuffers() throws IOException {
+        testInFlightParts(true);
+    }
+
+    private void testInFlightParts(boolean directBuffers) throws IOException {
+        S3AsyncClient s3Client = mock(S3AsyncClient.class);
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder()
+                        .bucket("bucket")
+                        .key("key")
+                        .uploadId("upload")
+                        .build()));
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+
+        Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+        List<Integer> modifiedParts = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger pendingUploads = new AtomicInteger();
+        AtomicInteger maxPendingUploads = new AtomicInteger();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+            AsyncRequestBody body = (AsyncRequestBody) invocation.getArguments()[1];
+            byte[] content = read(body);
+            maxPendingUploads.accumulateAndGet(pendingUploads.incrementAndGet(), Math::max);
+            CompletableFuture<UploadPartResponse> response = new CompletableFuture<>();
+            executor.schedule(() -> {
+                // the content of the part must not change until its upload is completed
+                if (!Arrays.equals(read(body), content)) {
+                    modifiedParts.add(request.partNumber());
+                }
+                uploadedParts.put(request.partNumber(), content);
+                pendingUploads.decrementAndGet();
+                response.complete(UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build());
+            }, 50, TimeUnit.MILLISECONDS);
+            return response;
+        });
+
+        byte[] data = new byte[4 * PART_SIZE + PART_SIZE / 2];
+        new Random(42).nextBytes(data);
+        try (OutputStream outputStream = new FileAssetPublisher.S3ObjectOutputStream(s3Client, "bucket", "key",
+                null, PART_SIZE, 2, directBuffers)) {
+            for (int offset = 0; offset < data.length; offset += 1000) {
+                outputStream.write(data, offset, Math.min(1000, data.length - offset));
+            }
+        }
+
+        Assert.assertEquals(modifiedParts, Collections.emptyList());
+        Assert.assertEquals(maxPendingUploads.get(), 2);
+        Assert.assertEquals(uploadedParts.size(), 5);
+        ByteArrayOutputStream uploadedData = new ByteArrayOutputStream();
+        for (int partNumber = 1; partNumber <= uploadedParts.size(); partNumber++) {
+            uploadedData.write(uploadedParts.get(partNumber));
+        }
+        Assert.assertEquals(uploadedData.toByteArray(), data);
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeRequest =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(completeRequest.capture());
+        Assert.assertEquals(completeRequest.getValue().multipartUpload().parts().stream()
+                .map(CompletedPart::eTag)
+                .collect(Collectors.toList()), Arrays.asList("etag-1", "etag-2", "etag-3", "etag-4", "etag-5"));
+    }
+
+    @Test
+    public void testPartSize() {
+        Assert.assertEquals(FileAssetPublisher.S3ObjectOutputStream.partSize(0), PART_SIZE);
+        Assert.assertEquals(FileAssetPublisher.S3ObjectOutputStream.partSize(PART_SIZE), PART_SIZE);
+        Assert.assertEquals(FileAssetPublisher.S3ObjectOutputStream.partSize(10_000L * PART_SIZE), PART_SIZE);
+        Assert.assertEquals(FileAssetPublisher.S3ObjectOutputStream.partSize(10_000L * PART_SIZE + 1), PART_SIZE + MEGABYTE);
+
+        for (long objectSize : new long[] {5 * GIGABYTE, 5 * 1024 * GIGABYTE}) {
+            int partSize = FileAssetPublisher.S3ObjectOutputStream.partSize(objectSize);
+            Assert.assertEquals(partSize % MEGABYTE, 0, "The part size must be aligned to megabytes");
+            Assert.assertTrue((objectSize + partSize - 1) / partSize <= 10_000, "The object must fit into 10,000 parts");
+        }
+    }
+
+    @Test
+    public void testSmallObjectIsUploadedWithSinglePutObject() throws IOException {
+        S3AsyncClient s3Client = mock(S3AsyncClient.class);
+        List<byte[]> objects = mockPutObject(s3Client);
+
+        byte[] data = new byte[PART_SIZE];
+        new Random(42).nextBytes(data);
+        try (OutputStream outputStream = new FileAssetPublisher.S3ObjectOutputStream(s3Client, "bucket", "key")) {
+            outputStream.write(data);
+        }
+
+        Assert.assertEquals(objects.size(), 1);
+        Assert.assertEquals(objects.get(0), data);
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        verify(s3Client, never()).uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class));
+    }
+
+    @Test
+    public void testEmptyObjectIsUploaded() throws IOException {
+        S3AsyncClient s3Client = mock(S3AsyncClient.class);
+        List<byte[]> objects = mockPutObject(s3Client);
+
+        new FileAssetPublisher.S3ObjectOutputStream(s3Client, "bucket", "key").close();
+
+        Assert.assertEquals(objects.size(), 1);
+        Assert.assertEquals(objects.get(0).length, 0);
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(request.capture(), any(AsyncRequestBody.class));
+        Assert.assertEquals(request.getValue().contentLength(), Long.valueOf(0));
+    }
+
+    @Test
+    public void testSmallFileIsUploadedWithSinglePutObject() throws IOException {
+        S3AsyncClient s3Client = mockS3Client();
+        List<byte[]> objects = mockPutObject(s3Client);
+        byte[] data = writeFile(PART_SIZE);
+
+        new FileAssetPublisher(s3Client, null, 4, false).publish(file, "key", "bucket");
+
+        Assert.assertEquals(objects.size(), 1);
+        Assert.assertEquals(objects.get(0), data);
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void testFileIsUploadedWhenExistenceCheckFails() throws IOException {
+        S3AsyncClient s3Client = mockS3Client();
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(failedFuture(SdkException.builder().message("Unable to execute the request").build()));
+        List<byte[]> objects = mockPutObject(s3Client);
+        byte[] data = writeFile(1000);
+
+        new FileAssetPublisher(s3Client, null, 4, false).publish(file, "key", "bucket");
+
+        Assert.assertEquals(objects.size(), 1);
+        Assert.assertEquals(objects.get(0), data);
+    }
+
+    @Test
+    public void testLargeFileIsUploadedInParts() throws IOException {
+        S3AsyncClient s3Client = mockS3Client();
+        Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+            uploadedParts.put(request.partNumber(), read((AsyncRequestBody) invocation.getArguments()[1]));
+            return CompletableFuture.completedFuture(UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build());
+        });
+        byte[] data = writeFile(2 * PART_SIZE + 1);
+
+        new FileAssetPublisher(s3Client, null, 4, false).publish(file, "key", "bucket");
+
+        Assert.assertEquals(uploadedParts.size(), 3);
+        ByteArrayOutputStream uploadedData = new ByteArrayOutputStream();
+        for (int partNumber = 1; partNumber <= uploadedParts.size(); partNumber++) {
+            uploadedData.write(uploadedParts.get(partNumber));
+        }
+        Assert.assertEquals(uploadedData.toByteArray(), data);
+        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+
+    @Test(timeOut = 30000)
+    public void testFilePartsInFlightAreLimited() throws IOException {
+        S3AsyncClient s3Client = mockS3Client();
+        AtomicInteger pendingUploads = new AtomicInteger();
+        AtomicInteger maxPendingUploads = new AtomicInteger();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+            maxPendingUploads.accumulateAndGet(pendingUploads.incrementAndGet(), Math::max);
+            CompletableFuture<UploadPartResponse> response = new CompletableFuture<>();
+            executor.schedule(() -> {
+                pendingUploads.decrementAndGet();
+                response.complete(UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build());
+            }, 50, TimeUnit.MILLISECONDS);
+            return response;
+        });
+        writeFile(4 * PART_SIZE + 1);
+
+        new FileAssetPublisher(s3Client, null, 2, false).publish(file, "key", "bucket");
+
+        Assert.assertEquals(maxPendingUploads.get(), 2);
+        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void testUploadIsAbortedOnPartFailure() throws IOException {
+        S3AsyncClient s3Client = mockS3Client();
+        AtomicInteger uploadedParts = new AtomicInteger();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            if (uploadedParts.incrementAndGet() > 1) {
+                throw SdkException.builder().message("Unable to execute the request").build();
+            }
+            return CompletableFuture.completedFuture(UploadPartResponse.builder().eTag("etag").build());
+        });
+        writeFile(2 * PART_SIZE + 1);
+
+        try {
+            new FileAssetPublisher(s3Client, null, 4, false).publish(file, "key", "bucket");
+            Assert.fail("The upload must fail");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getCause() instanceof SdkException);
+        }
+
+        ArgumentCaptor<AbortMultipartUploadRequest> abortRequest = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(s3Client).abortMultipartUpload(abortRequest.capture());
+        Assert.assertEquals(abortRequest.getValue().uploadId(), "upload");
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void testFailureToCreateUploadIsReported() throws IOException {
+        S3AsyncClient s3Client = mockS3Client();
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(failedFuture(S3Exception.builder().statusCode(403).build()));
+        writeFile(2 * PART_SIZE + 1);
+
+        try {
+            new FileAssetPublisher(s3Client, null, 4, false).publish(file, "key", "bucket");
+            Assert.fail("The upload must fail");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getCause() instanceof S3Exception);
+        }
+
+        verify(s3Client, never()).uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void testFailureToAbortUploadIsNotPropagated() throws IOException {
+        S3AsyncClient s3Client = mockS3Client();
+        SdkException partFailure = SdkException.builder().message("Unable to upload the part").build();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class))).thenReturn(failedFuture(partFailure));
+        when(s3Client.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(failedFuture(SdkException.builder().message("Unable to abort the upload").build()));
+
+        FileAssetPublisher.S3ObjectOutputStream outputStream = new FileAssetPublisher.S3ObjectOutputStream(s3Client,
+                "bucket", "key", null, PART_SIZE, 2, false);
+        try {
+            outputStream.write(new byte[2 * PART_SIZE + 1]);
+            Assert.fail("The upload must fail");
+        } catch (IOException e) {
+            Assert.assertSame(e.getCause(), partFailure);
+        }
+        outputStream.abort();
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        try {
+            outputStream.write(1);
+            Assert.fail("The stream must be closed after the upload is aborted");
+        } catch (IOException e) {
+            Assert.assertEquals(e.getMessage(), "The stream is closed");
+        }
+    }
+
+    /**
+     * Returns an S3 client mock for the bucket that doesn't contain the uploaded object yet.
+     */
+    private static S3AsyncClient mockS3Client() {
+        S3AsyncClient s3Client = mock(S3AsyncClient.class);
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(failedFuture(S3Exception.builder().statusCode(404).build()));
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder()
+                        .bucket("bucket")
+                        .key("key")
+                        .uploadId("upload")
+                        .build()));
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+        when(s3Client.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+        return s3Client;
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    private byte[] writeFile(int size) throws IOException {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        Files.write(file, data);
+        return data;
+    }
+
+    private static List<byte[]> mockPutObject(S3AsyncClient s3Client) {
+        List<byte[]> objects = Collections.synchronizedList(new ArrayList<>());
+        when(s3Client.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            objects.add(read((AsyncRequestBody) invocation.getArguments()[1]));
+            return CompletableFuture.completedFuture(PutObjectResponse.builder().build());
+        });
+        return objects;
+    }
+
+    private static byte[] read(AsyncRequestBody body) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        body.subscribe(new Subscriber<ByteBuffer>() {
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer buffer) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                content.write(bytes, 0, bytes.length);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+
+        });
+
+        return content.toByteArray();
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.collect.ImmutableMap;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ImageBuildDigestTest {
+
+    private Path contextDirectory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        contextDirectory = Files.createTempDirectory("image-build-digest-test");
+        write(contextDirectory, "Dockerfile", "FROM node:12\nCOPY src /app\n");
+        write(contextDirectory, "src/app.js", "console.log('hello');");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(contextDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testDigestIsStable() throws IOException {
+
+        Assert.assertEquals(ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of())),
+                ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of())));
+    }
+
+    @Test
+    public void testDigestCoversContent() throws IOException {
+        String digest = ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of()));
+
+        write(contextDirectory, "src/app.js", "console.log('updated');");
+        Assert.assertNotEquals(ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of())), digest);
+    }
+
+    @Test
+    public void testDigestCoversDockerfileArgumentsAndTarget() throws IOException {
+        String digest = ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of()));
+
+        Assert.assertNotEquals(ImageBuildDigest.compute(imageBuild(contextDirectory, "build", ImmutableMap.of())), digest);
+        Assert.assertNotEquals(ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of("VERSION", "1"))), digest);
+
+        write(contextDirectory, "Dockerfile", "FROM node:14\nCOPY src /app\n");
+        Assert.assertNotEquals(ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of())), digest);
+    }
+
+    @Test
+    public void testIgnoredFilesAreExcluded() throws IOException {
+        write(contextDirectory, ".dockerignore", "# comment\nnode_modules\n**/*.log\nsrc/generated\n!src/generated/keep.js\n");
+        String digest = ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of()));
+
+        write(contextDirectory, "node_modules/module/index.js", "module.exports = {};");
+        write(contextDirectory, "src/debug.log", "debug");
+        write(contextDirectory, "src/generated/skipped.js", "skipped");
+        Assert.assertEquals(ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of())), digest);
+
+        write(contextDirectory, "src/generated/keep.js", "kept");
+        Assert.assertNotEquals(ImageBuildDigest.compute(imageBuild(contextDirectory, null, ImmutableMap.of())), digest);
+    }
+
+    private static ImageBuild imageBuild(Path contextDirectory, String target, Map<String, String> arguments) {
+        return ImageBuild.builder()
+                .withContextDirectory(contextDirectory)
+                .withDockerfile(contextDirectory.resolve("Dockerfile"))
+                .withImageTag("image")
+                .withTarget(target)
+                .withArguments(arguments)
+                .build();
+    }
+
+    private static void write(Path directory, String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
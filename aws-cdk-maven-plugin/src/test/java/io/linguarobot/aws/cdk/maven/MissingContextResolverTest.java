@@ -0,0 +1,107 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.linguarobot.aws.cdk.MissingContext;
+import io.linguarobot.aws.cdk.maven.context.ContextProvider;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class MissingContextResolverTest {
+
+    @Test
+    public void testResolutionOrder() {
+        ContextProvider provider = properties -> {
+            int delay = properties.getInt("delay");
+            sleep(delay);
+            return Json.createValue(delay);
+        };
+        MissingContextResolver resolver = new MissingContextResolver(ImmutableMap.of("test", provider), 4, 4);
+
+        List<MissingContext> missingContexts = ImmutableList.of(
+                missingContext("first", "test", 300),
+                missingContext("second", "test", 200),
+                missingContext("third", "test", 100),
+                missingContext("fourth", "test", 0)
+        );
+        Map<String, JsonValue> values = resolver.resolve(missingContexts);
+
+        Assert.assertEquals(new ArrayList<>(values.keySet()), ImmutableList.of("first", "second", "third", "fourth"));
+        Assert.assertEquals(values.get("first"), Json.createValue(300));
+        Assert.assertEquals(values.get("fourth"), Json.createValue(0));
+    }
+
+    @Test(timeOut = 10000)
+    public void testProviderConcurrencyLimit() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ContextProvider provider = properties -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+            return JsonValue.TRUE;
+        };
+        MissingContextResolver resolver = new MissingContextResolver(ImmutableMap.of("test", provider), 8, 2);
+
+        List<MissingContext> missingContexts = IntStream.range(0, 10)
+                .mapToObj(i -> missingContext("key-" + i, "test", 0))
+                .collect(Collectors.toList());
+        Map<String, JsonValue> values = resolver.resolve(missingContexts);
+
+        Assert.assertEquals(values.size(), 10);
+        Assert.assertEquals(maxRunning.get(), 2);
+    }
+
+    @Test
+    public void testResolutionFailure() {
+        ContextProvider provider = properties -> {
+            if (properties.getInt("delay") > 0) {
+                throw new IllegalStateException("failure");
+            }
+            return JsonValue.TRUE;
+        };
+        MissingContextResolver resolver = new MissingContextResolver(ImmutableMap.of("test", provider), 4, 4);
+
+        List<MissingContext> missingContexts = ImmutableList.of(
+                missingContext("first", "test", 0),
+                missingContext("second", "test", 1),
+                missingContext("third", "test", 1)
+        );
+        try {
+            resolver.resolve(missingContexts);
+            Assert.fail("The resolution is expected to fail");
+        } catch (CdkPluginException e) {
+            Assert.assertTrue(e.getMessage().contains("'second'"));
+            Assert.assertEquals(e.getSuppressed().length, 1);
+        }
+    }
+
+    @Test(expectedExceptions = CdkPluginException.class)
+    public void testUnknownProvider() {
+        MissingContextResolver resolver = new MissingContextResolver(Collections.emptyMap(), 4, 4);
+        resolver.resolve(ImmutableList.of(missingContext("first", "unknown", 0)));
+    }
+
+    private static MissingContext missingContext(String key, String provider, int delay) {
+        return new MissingContext(key, provider, ImmutableMap.of("delay", delay));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
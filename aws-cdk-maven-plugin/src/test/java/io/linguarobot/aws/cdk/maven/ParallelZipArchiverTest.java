@@ -0,0 +1,112 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.io.ByteStreams;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class ParallelZipArchiverTest {
+
+    private ExecutorService executor;
+    private Path directory;
+
+    @BeforeClass
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @AfterMethod
+    public void deleteDirectory() throws IOException {
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+            directory = null;
+        }
+    }
+
+    @Test
+    public void testArchive() throws IOException {
+        directory = Files.createTempDirectory("zip-test");
+        Random random = new Random(42);
+        Map<String, byte[]> files = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            byte[] content = new byte[random.nextInt(100 * 1024)];
+            random.nextBytes(content);
+            files.put(write(directory, "dir" + i % 3 + "/file" + i, content), content);
+        }
+        byte[] largeContent = new byte[10 * 1024 * 1024];
+        random.nextBytes(largeContent);
+        files.put(write(directory, "large", largeContent), largeContent);
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        new ParallelZipArchiver(executor, 4).archive(directory, archive);
+
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archive.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                entries.put(entry.getName(), ByteStreams.toByteArray(zipInputStream));
+            }
+        }
+
+        Assert.assertEquals(entries.keySet(), files.keySet());
+        files.forEach((name, content) -> Assert.assertEquals(entries.get(name), content, name));
+    }
+
+    @Test
+    public void testArchiveIsReproducible() throws IOException {
+        directory = Files.createTempDirectory("zip-test");
+        Random random = new Random(42);
+        for (int i = 0; i < 10; i++) {
+            byte[] content = new byte[random.nextInt(10 * 1024)];
+            random.nextBytes(content);
+            write(directory, "dir" + i % 2 + "/file" + i, content);
+        }
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        new ParallelZipArchiver(executor, 4).archive(directory, archive);
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+            }
+        }
+        ByteArrayOutputStream otherArchive = new ByteArrayOutputStream();
+        new ParallelZipArchiver(executor, 1).archive(directory, otherArchive);
+
+        Assert.assertEquals(otherArchive.toByteArray(), archive.toByteArray());
+    }
+
+    private String write(Path directory, String name, byte[] content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        return directory.relativize(file).toString();
+    }
+
+}
@@ -0,0 +1,186 @@
+package io.linguarobot.aws.cdk.maven;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StackDeploymentSchedulerTest {
+
+    @Test
+    public void testDependencyOrder() {
+        List<StackDefinition> stacks = ImmutableList.of(
+                stack("network"),
+                stack("database", "network"),
+                stack("service", "network", "database")
+        );
+
+        Set<String> deployed = ConcurrentHashMap.newKeySet();
+        new StackDeploymentScheduler(3).deployAsync(stacks, stack -> CompletableFuture.runAsync(() -> {
+            stack.getDependencies().forEach(dependency -> Assert.assertTrue(deployed.contains(dependency)));
+            deployed.add(stack.getStackName());
+        }));
+
+        Assert.assertEquals(deployed.size(), 3);
+    }
+
+    @Test(timeOut = 10000)
+    public void testIndependentStacksAreDeployedConcurrently() {
+        List<StackDefinition> stacks = ImmutableList.of(
+                stack("network"),
+                stack("first", "network"),
+                stack("second", "network")
+        );
+
+        // the deployments of the independent stacks are completed only once both of them have started
+        AtomicInteger started = new AtomicInteger();
+        CompletableFuture<Void> bothStarted = new CompletableFuture<>();
+        new StackDeploymentScheduler(2).deployAsync(stacks, stack -> {
+            if (stack.getStackName().equals("network")) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (started.incrementAndGet() == 2) {
+                bothStarted.complete(null);
+            }
+            return bothStarted;
+        });
+    }
+
+    @Test
+    public void testFailureSkipsDependentStacksOnly() {
+        List<StackDefinition> stacks = ImmutableList.of(
+                stack("network"),
+                stack("database", "network"),
+                stack("service", "database"),
+                stack("monitoring")
+        );
+
+        Set<String> deployed = ConcurrentHashMap.newKeySet();
+        try {
+            new StackDeploymentScheduler(1).deployAsync(stacks, stack -> CompletableFuture.runAsync(() -> {
+                if (stack.getStackName().equals("database")) {
+                    throw new CdkPluginException("database failure");
+                }
+                deployed.add(stack.getStackName());
+            }));
+            Assert.fail("The deployment is expected to fail");
+        } catch (CdkPluginException e) {
+            Assert.assertEquals(e.getMessage(), "database failure");
+        }
+
+        Assert.assertEquals(deployed, ImmutableSet.of("network", "monitoring"));
+    }
+
+    @Test
+    public void testMultipleFailures() {
+        List<StackDefinition> stacks = ImmutableList.of(
+                stack("first"),
+                stack("second")
+        );
+
+        try {
+            new StackDeploymentScheduler(2).deployAsync(stacks, stack -> {
+                throw new CdkPluginException(stack.getStackName() + " failure");
+            });
+            Assert.fail("The deployment is expected to fail");
+        } catch (CdkPluginException e) {
+            Assert.assertEquals(e.getSuppressed().length, 2);
+            Assert.assertTrue(e.getMessage().contains("first failure"));
+            Assert.assertTrue(e.getMessage().contains("second failure"));
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testAsyncDeploymentConcurrencyLimit() {
+        List<StackDefinition> stacks = ImmutableList.of(
+                stack("first"),
+                stack("second"),
+                stack("third"),
+                stack("fourth", "first")
+        );
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<String> deployed = ConcurrentHashMap.newKeySet();
+        new StackDeploymentScheduler(2).deployAsync(stacks, stack -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            stack.getDependencies().forEach(dependency -> Assert.assertTrue(deployed.contains(dependency)));
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                deployed.add(stack.getStackName());
+                running.decrementAndGet();
+            });
+        });
+
+        Assert.assertEquals(deployed.size(), 4);
+        Assert.assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void testAsyncDeploymentFailure() {
+        List<StackDefinition> stacks = ImmutableList.of(
+                stack("network"),
+                stack("database", "network")
+        );
+
+        try {
+            new StackDeploymentScheduler(2).deployAsync(stacks, stack -> {
+                CompletableFuture<Void> deployment = new CompletableFuture<>();
+                deployment.completeExceptionally(new CdkPluginException(stack.getStackName() + " failure"));
+                return deployment;
+            });
+            Assert.fail("The deployment is expected to fail");
+        } catch (CdkPluginException e) {
+            Assert.assertEquals(e.getMessage(), "network failure");
+        }
+    }
+
+    @Test
+    public void testSkipListener() {
+        List<StackDefinition> stacks = ImmutableList.of(
+                stack("network"),
+                stack("database", "network"),
+                stack("service", "database"),
+                stack("monitoring")
+        );
+
+        Set<String> skipped = ConcurrentHashMap.newKeySet();
+        try {
+            new StackDeploymentScheduler(2).deployAsync(stacks, stack -> {
+                CompletableFuture<Void> deployment = new CompletableFuture<>();
+                if (stack.getStackName().equals("network")) {
+                    deployment.completeExceptionally(new CdkPluginException("network failure"));
+                } else {
+                    deployment.complete(null);
+                }
+                return deployment;
+            }, stack -> skipped.add(stack.getStackName()));
+            Assert.fail("The deployment is expected to fail");
+        } catch (CdkPluginException e) {
+            Assert.assertEquals(e.getMessage(), "network failure");
+        }
+
+        Assert.assertEquals(skipped, ImmutableSet.of("database", "service"));
+    }
+
+    private StackDefinition stack(String stackName, String... dependencies) {
+        return StackDefinition.builder()
+                .withStackName(stackName)
+                .withTemplateFile(Paths.get(stackName + ".template.json"))
+                .withEnvironment("aws://unknown-account/unknown-region")
+                .withDependencies(ImmutableList.copyOf(dependencies))
+                .build();
+    }
+
+}
@@ -0,0 +1,90 @@
+package io.linguarobot.aws.cdk.maven;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.cloudformation.CloudFormationAsyncClient;
+import software.amazon.awssdk.services.cloudformation.model.CloudFormationException;
+import software.amazon.awssdk.services.cloudformation.model.DescribeStacksRequest;
+import software.amazon.awssdk.services.cloudformation.model.DescribeStacksResponse;
+import software.amazon.awssdk.services.cloudformation.model.ListStacksRequest;
+import software.amazon.awssdk.services.cloudformation.model.Stack;
+import software.amazon.awssdk.services.cloudformation.model.StackStatus;
+import software.amazon.awssdk.services.cloudformation.paginators.ListStacksPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StackStatusPollerTest {
+
+    private static final Duration POLLING_DELAY = Duration.ofMillis(10);
+
+    @Test
+    public void testDeniedListStacksFallsBackToDescribeStacks() throws Exception {
+        CloudFormationAsyncClient client = mock(CloudFormationAsyncClient.class);
+        when(client.listStacksPaginator(any(ListStacksRequest.class)))
+                .thenAnswer(invocation -> new ListStacksPublisher(client, (ListStacksRequest) invocation.getArguments()[0]));
+        when(client.listStacks(any(ListStacksRequest.class))).thenReturn(failed(CloudFormationException.builder()
+                .statusCode(403)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("AccessDenied").build())
+                .message("Access denied")
+                .build()));
+        when(client.describeStacks(any(DescribeStacksRequest.class))).thenAnswer(invocation -> {
+            DescribeStacksRequest request = (DescribeStacksRequest) invocation.getArguments()[0];
+            Stack stack = stack(request.stackName(), StackStatus.CREATE_COMPLETE);
+            return CompletableFuture.completedFuture(DescribeStacksResponse.builder().stacks(stack).build());
+        });
+        StackStatusPoller poller = new StackStatusPoller(client, POLLING_DELAY, POLLING_DELAY, 3);
+
+        CompletableFuture<Stack> first = poller.awaitCompletion(stack("first", StackStatus.CREATE_IN_PROGRESS), null);
+        CompletableFuture<Stack> second = poller.awaitCompletion(stack("second", StackStatus.CREATE_IN_PROGRESS), null);
+
+        Assert.assertEquals(first.get(10, TimeUnit.SECONDS).stackStatus(), StackStatus.CREATE_COMPLETE);
+        Assert.assertEquals(second.get(10, TimeUnit.SECONDS).stackStatus(), StackStatus.CREATE_COMPLETE);
+    }
+
+    @Test
+    public void testAwaitingFailsAfterConsecutiveFailedPolls() throws InterruptedException, TimeoutException {
+        CloudFormationAsyncClient client = mock(CloudFormationAsyncClient.class);
+        SdkClientException exception = SdkClientException.builder().message("Unable to connect").build();
+        when(client.describeStacks(any(DescribeStacksRequest.class))).thenAnswer(invocation -> failed(exception));
+        StackStatusPoller poller = new StackStatusPoller(client, POLLING_DELAY, POLLING_DELAY, 3);
+
+        CompletableFuture<Stack> completion = poller.awaitCompletion(stack("stack", StackStatus.UPDATE_IN_PROGRESS), null);
+
+        try {
+            completion.get(10, TimeUnit.SECONDS);
+            Assert.fail("The awaiting should have failed");
+        } catch (ExecutionException e) {
+            Assert.assertSame(e.getCause(), exception);
+        }
+        verify(client, times(3)).describeStacks(any(DescribeStacksRequest.class));
+    }
+
+    private static Stack stack(String stackId, StackStatus status) {
+        return Stack.builder()
+                .stackId(stackId)
+                .stackName(stackId)
+                .stackStatus(status)
+                .creationTime(Instant.now())
+                .build();
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+}
@@ -0,0 +1,93 @@
+package io.linguarobot.aws.cdk.maven;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class SynthesisFingerprintTest {
+
+    private static final Instant NOW = Instant.ofEpochSecond(1000);
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("synthesis-fingerprint-test");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testUpToDate() {
+        SynthesisFingerprint fingerprint = new SynthesisFingerprint("fingerprint", null);
+
+        Assert.assertTrue(fingerprint.isUpToDate("fingerprint", false, NOW));
+        Assert.assertFalse(fingerprint.isUpToDate("other", false, NOW));
+    }
+
+    @Test
+    public void testRefreshedContextIsNotUpToDate() {
+        Assert.assertFalse(new SynthesisFingerprint("fingerprint", null).isUpToDate("fingerprint", true, NOW));
+        Assert.assertFalse(new SynthesisFingerprint("fingerprint", NOW.plusSeconds(3600)).isUpToDate("fingerprint", true, NOW));
+    }
+
+    @Test
+    public void testExpiredContextIsNotUpToDate() {
+        SynthesisFingerprint fingerprint = new SynthesisFingerprint("fingerprint", NOW.plusSeconds(60));
+
+        Assert.assertTrue(fingerprint.isUpToDate("fingerprint", false, NOW));
+        Assert.assertFalse(fingerprint.isUpToDate("fingerprint", false, NOW.plusSeconds(60)));
+        Assert.assertFalse(fingerprint.isUpToDate("fingerprint", false, NOW.plusSeconds(3600)));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path file = directory.resolve("synth.fingerprint");
+        Assert.assertFalse(SynthesisFingerprint.read(file).isPresent());
+
+        new SynthesisFingerprint("fingerprint", NOW).write(file);
+        SynthesisFingerprint fingerprint = SynthesisFingerprint.read(file).orElse(null);
+        Assert.assertNotNull(fingerprint);
+        Assert.assertEquals(fingerprint.getValue(), "fingerprint");
+        Assert.assertEquals(fingerprint.getContextExpiresAt().orElse(null), NOW);
+
+        new SynthesisFingerprint("fingerprint", null).write(file);
+        fingerprint = SynthesisFingerprint.read(file).orElse(null);
+        Assert.assertNotNull(fingerprint);
+        Assert.assertFalse(fingerprint.getContextExpiresAt().isPresent());
+    }
+
+    @Test
+    public void testReadFingerprintWithoutExpiration() throws IOException {
+        Path file = directory.resolve("synth.fingerprint");
+        Files.write(file, "fingerprint".getBytes(StandardCharsets.UTF_8));
+
+        SynthesisFingerprint fingerprint = SynthesisFingerprint.read(file).orElse(null);
+        Assert.assertNotNull(fingerprint);
+        Assert.assertEquals(fingerprint.getValue(), "fingerprint");
+        Assert.assertFalse(fingerprint.getContextExpiresAt().isPresent());
+    }
+
+    @Test
+    public void testMalformedFingerprintIsIgnored() throws IOException {
+        Path file = directory.resolve("synth.fingerprint");
+        Files.write(file, "fingerprint\nnot-a-time\n".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertFalse(SynthesisFingerprint.read(file).isPresent());
+    }
+
+}
@@ -0,0 +1,40 @@
+package io.linguarobot.aws.cdk.maven.context;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.services.ssm.SsmClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class AwsClientProviderBuilderTest {
+
+    @Test
+    public void testClientsAreReused() {
+        List<SsmClient> createdClients = new ArrayList<>();
+        AwsClientProvider awsClientProvider = new AwsClientProviderBuilder()
+                .withClientFactory(SsmClient.class, environment -> {
+                    SsmClient client = mock(SsmClient.class);
+                    createdClients.add(client);
+                    return client;
+                })
+                .build();
+
+        SsmClient client = awsClientProvider.getClient(SsmClient.class, "aws://123456789012/eu-west-1");
+        Assert.assertSame(awsClientProvider.getClient(SsmClient.class, "aws://123456789012/eu-west-1"), client);
+        Assert.assertNotSame(awsClientProvider.getClient(SsmClient.class, "aws://123456789012/us-east-1"), client);
+        Assert.assertEquals(createdClients.size(), 2);
+
+        awsClientProvider.close();
+        createdClients.forEach(createdClient -> verify(createdClient).close());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownClientType() {
+        new AwsClientProviderBuilder().build().getClient(SsmClient.class, "aws://123456789012/eu-west-1");
+    }
+
+}
@@ -0,0 +1,127 @@
+package io.linguarobot.aws.cdk.maven.context;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class CachingContextProviderTest {
+
+    private Path cacheDirectory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        cacheDirectory = Files.createTempDirectory("context-cache");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testCachedValueIsReused() {
+        AtomicInteger invocations = new AtomicInteger();
+        ContextProvider contextProvider = properties -> Json.createValue("value-" + invocations.incrementAndGet());
+        ContextCache cache = new ContextCache(cacheDirectory, fixedClock(0));
+
+        JsonValue value = new CachingContextProvider("test", contextProvider, cache, Duration.ofHours(1), false)
+                .getContextValue(properties("first", "second"));
+        JsonValue cachedValue = new CachingContextProvider("test", contextProvider, cache, Duration.ofHours(1), false)
+                .getContextValue(properties("first", "second"));
+
+        Assert.assertEquals(value, Json.createValue("value-1"));
+        Assert.assertEquals(cachedValue, Json.createValue("value-1"));
+        Assert.assertEquals(invocations.get(), 1);
+    }
+
+    @Test
+    public void testPropertyOrderIsIgnored() {
+        ContextCache cache = new ContextCache(cacheDirectory, fixedClock(0));
+        cache.put("test", properties("first", "second"), JsonValue.TRUE, Duration.ofHours(1));
+
+        JsonObject properties = Json.createObjectBuilder()
+                .add("b", "second")
+                .add("a", "first")
+                .build();
+        Assert.assertEquals(cache.get("test", properties).orElse(null), JsonValue.TRUE);
+        Assert.assertFalse(cache.get("other", properties).isPresent());
+        Assert.assertFalse(cache.get("test", properties("first", "third")).isPresent());
+    }
+
+    @Test
+    public void testExpiredValueIsProvidedAgain() {
+        AtomicInteger invocations = new AtomicInteger();
+        ContextProvider contextProvider = properties -> Json.createValue("value-" + invocations.incrementAndGet());
+
+        new CachingContextProvider("test", contextProvider, new ContextCache(cacheDirectory, fixedClock(0)), Duration.ofMinutes(1), false)
+                .getContextValue(properties("first", "second"));
+        JsonValue value = new CachingContextProvider("test", contextProvider, new ContextCache(cacheDirectory, fixedClock(60)), Duration.ofMinutes(1), false)
+                .getContextValue(properties("first", "second"));
+
+        Assert.assertEquals(value, Json.createValue("value-2"));
+    }
+
+    @Test
+    public void testRefresh() {
+        AtomicInteger invocations = new AtomicInteger();
+        ContextProvider contextProvider = properties -> Json.createValue("value-" + invocations.incrementAndGet());
+        ContextCache cache = new ContextCache(cacheDirectory, fixedClock(0));
+
+        new CachingContextProvider("test", contextProvider, cache, Duration.ofHours(1), false)
+                .getContextValue(properties("first", "second"));
+        JsonValue refreshedValue = new CachingContextProvider("test", contextProvider, cache, Duration.ofHours(1), true)
+                .getContextValue(properties("first", "second"));
+        JsonValue cachedValue = new CachingContextProvider("test", contextProvider, cache, Duration.ofHours(1), false)
+                .getContextValue(properties("first", "second"));
+
+        Assert.assertEquals(refreshedValue, Json.createValue("value-2"));
+        Assert.assertEquals(cachedValue, Json.createValue("value-2"));
+    }
+
+    @Test
+    public void testEarliestExpiration() {
+        ContextProvider contextProvider = properties -> JsonValue.TRUE;
+        new CachingContextProvider("test", contextProvider, new ContextCache(cacheDirectory, fixedClock(0)), Duration.ofMinutes(10), false)
+                .getContextValue(properties("first", "second"));
+
+        CachingContextProvider cachingContextProvider = new CachingContextProvider("test", contextProvider,
+                new ContextCache(cacheDirectory, fixedClock(60)), Duration.ofMinutes(10), false);
+        Assert.assertFalse(cachingContextProvider.getEarliestExpiration().isPresent());
+
+        cachingContextProvider.getContextValue(properties("first", "third"));
+        Assert.assertEquals(cachingContextProvider.getEarliestExpiration().orElse(null), Instant.ofEpochSecond(660));
+
+        // the cached value expires earlier than the one that has just been provided
+        cachingContextProvider.getContextValue(properties("first", "second"));
+        Assert.assertEquals(cachingContextProvider.getEarliestExpiration().orElse(null), Instant.ofEpochSecond(600));
+    }
+
+    private static JsonObject properties(String a, String b) {
+        return Json.createObjectBuilder()
+                .add("a", a)
+                .add("b", b)
+                .build();
+    }
+
+    private static Clock fixedClock(long seconds) {
+        return Clock.fixed(Instant.ofEpochSecond(seconds), ZoneOffset.UTC);
+    }
+
+}